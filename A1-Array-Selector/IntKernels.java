@@ -0,0 +1,117 @@
+/**
+ * IntKernels.java
+ * Scan loops shared by Selector and ParallelSelector. The loops whose
+ * tests go either way about half the time on typical data (the ceiling
+ * and floor filters and the range test) are written without branches, as
+ * conditional moves and a single unsigned compare, so that C2 can unroll
+ * them and vectorize where the hardware allows. min and max keep a plain
+ * branch: it almost never changes the running value and so is nearly
+ * always predicted, which measured faster than a Math.min reduction.
+ * Every method works on the subrange a[lo..hi), which must not be empty
+ * where a value is returned. SelectorBenchmark compares these loops with
+ * plain branching versions.
+ *
+ * @author  Will Humphlett (wah0028@auburn.edu)
+ * @version 10/17/2026
+ *
+ */
+final class IntKernels {
+
+   /**
+    * Can't instantiate this class.
+    */
+   private IntKernels() { }
+
+
+   /**
+    * Returns the minimum of a[lo..hi).
+    */
+   static int min(int[] a, int lo, int hi) {
+      int m = a[lo];
+      for (int i = lo + 1; i < hi; i++) {
+         if (a[i] < m) {
+            m = a[i];
+         }
+      }
+      return m;
+   }
+
+
+   /**
+    * Returns the maximum of a[lo..hi).
+    */
+   static int max(int[] a, int lo, int hi) {
+      int m = a[lo];
+      for (int i = lo + 1; i < hi; i++) {
+         if (a[i] > m) {
+            m = a[i];
+         }
+      }
+      return m;
+   }
+
+
+   /**
+    * Returns the smallest value in a[lo..hi) that is greater than or equal
+    * to key, or Integer.MAX_VALUE if there is none.
+    */
+   static int ceiling(int[] a, int lo, int hi, int key) {
+      int m = Integer.MAX_VALUE;
+      for (int i = lo; i < hi; i++) {
+         int x = a[i];
+         m = Math.min(m, x >= key ? x : Integer.MAX_VALUE);
+      }
+      return m;
+   }
+
+
+   /**
+    * Returns the largest value in a[lo..hi) that is less than or equal to
+    * key, or Integer.MIN_VALUE if there is none.
+    */
+   static int floor(int[] a, int lo, int hi, int key) {
+      int m = Integer.MIN_VALUE;
+      for (int i = lo; i < hi; i++) {
+         int x = a[i];
+         m = Math.max(m, x <= key ? x : Integer.MIN_VALUE);
+      }
+      return m;
+   }
+
+
+   /**
+    * Returns the number of values in a[lo..hi) that lie in [low..high].
+    */
+   static int count(int[] a, int lo, int hi, int low, int high) {
+      if (low > high) {
+         return 0;
+      }
+      // x is in [low..high] exactly when x - low <= high - low, unsigned
+      int span = (high - low) ^ Integer.MIN_VALUE;
+      int c = 0;
+      for (int i = lo; i < hi; i++) {
+         c += ((a[i] - low) ^ Integer.MIN_VALUE) <= span ? 1 : 0;
+      }
+      return c;
+   }
+
+
+   /**
+    * Copies the values in a[lo..hi) that lie in [low..high] to out,
+    * starting at index off and keeping their order. Returns the index just
+    * past the last value written.
+    */
+   static int copy(int[] a, int lo, int hi, int low, int high, int[] out, int off) {
+      if (low > high) {
+         return off;
+      }
+      int span = (high - low) ^ Integer.MIN_VALUE;
+      for (int i = lo; i < hi; i++) {
+         int x = a[i];
+         if (((x - low) ^ Integer.MIN_VALUE) <= span) {
+            out[off++] = x;
+         }
+      }
+      return off;
+   }
+}
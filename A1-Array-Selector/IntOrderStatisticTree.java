@@ -0,0 +1,438 @@
+import java.util.Arrays;
+
+/**
+ * IntOrderStatisticTree.java
+ * A multiset of ints that supports the Selector queries while values are
+ * inserted and deleted. It is a treap stored in parallel primitive arrays
+ * (no boxed Integers): each node holds one distinct value with its
+ * multiplicity, and is augmented with the number of distinct values and
+ * the total number of values in its subtree. insert, delete, kmin, kmax,
+ * floor, ceiling and rangeCount all run in expected O(log n). kmin and
+ * kmax count distinct values exactly as Selector.kmin and Selector.kmax
+ * do.
+ *
+ * @author  Will Humphlett (wah0028@auburn.edu)
+ * @version 10/17/2026
+ *
+ */
+public final class IntOrderStatisticTree {
+
+   /** Initial number of node slots. */
+   private static final int INITIAL_CAPACITY = 16;
+
+   /** node fields, indexed by node; node 0 is the empty tree. */
+   private int[] key;
+   private int[] count;
+   private int[] left;
+   private int[] right;
+   private int[] priority;
+   private int[] distinct;
+   private long[] total;
+
+   /** root node, or 0 if empty. */
+   private int root;
+
+   /** next never-used node slot. */
+   private int nextNode = 1;
+
+   /** head of the list of freed node slots, linked through left. */
+   private int free;
+
+   /** state of the priority generator. */
+   private int seed = 0x2545F491;
+
+   /** results of the last split. */
+   private int splitLeft;
+   private int splitRight;
+
+   /**
+    * Builds an empty multiset.
+    */
+   public IntOrderStatisticTree() {
+      key = new int[INITIAL_CAPACITY];
+      count = new int[INITIAL_CAPACITY];
+      left = new int[INITIAL_CAPACITY];
+      right = new int[INITIAL_CAPACITY];
+      priority = new int[INITIAL_CAPACITY];
+      distinct = new int[INITIAL_CAPACITY];
+      total = new long[INITIAL_CAPACITY];
+   }
+
+   /**
+    * Builds a multiset holding every value in a. This constructor throws
+    * IllegalArgumentException if a is null.
+    */
+   public IntOrderStatisticTree(int[] a) {
+      this();
+      if (a == null) {
+         throw new IllegalArgumentException("Array must not be null.");
+      }
+      for (int value : a) {
+         insert(value);
+      }
+   }
+
+
+   /**
+    * Returns the number of values in this multiset, including duplicates.
+    */
+   public long size() {
+      return total[root];
+   }
+
+
+   /**
+    * Returns the number of distinct values in this multiset.
+    */
+   public int distinctCount() {
+      return distinct[root];
+   }
+
+
+   /**
+    * Returns true if this multiset holds no values.
+    */
+   public boolean isEmpty() {
+      return root == 0;
+   }
+
+
+   /**
+    * Returns the number of times value occurs in this multiset.
+    */
+   public int count(int value) {
+      int t = find(value);
+      return t == 0 ? 0 : count[t];
+   }
+
+
+   /**
+    * Adds one occurrence of value.
+    */
+   public void insert(int value) {
+      if (find(value) != 0) {
+         // Existing value: one more occurrence along the search path
+         int t = root;
+         while (key[t] != value) {
+            total[t]++;
+            t = value < key[t] ? left[t] : right[t];
+         }
+         total[t]++;
+         count[t]++;
+         return;
+      }
+      int node = newNode(value);
+      split(root, value, false);
+      int rest = splitRight;
+      root = merge(merge(splitLeft, node), rest);
+   }
+
+
+   /**
+    * Removes one occurrence of value. Returns true if this multiset is
+    * changed as a result, false if value was not present.
+    */
+   public boolean delete(int value) {
+      int t = find(value);
+      if (t == 0) {
+         return false;
+      }
+      if (count[t] > 1) {
+         t = root;
+         while (key[t] != value) {
+            total[t]--;
+            t = value < key[t] ? left[t] : right[t];
+         }
+         total[t]--;
+         count[t]--;
+         return true;
+      }
+      // Last occurrence: cut the node out and join what is left
+      split(root, value, false);
+      int less = splitLeft;
+      split(splitRight, value, true);
+      int greater = splitRight;
+      freeNode(splitLeft);
+      root = merge(less, greater);
+      return true;
+   }
+
+
+   /**
+    * Selects the minimum value. This method throws IllegalArgumentException
+    * if this multiset is empty.
+    */
+   public int min() {
+      checkNotEmpty();
+      int t = root;
+      while (left[t] != 0) {
+         t = left[t];
+      }
+      return key[t];
+   }
+
+
+   /**
+    * Selects the maximum value. This method throws IllegalArgumentException
+    * if this multiset is empty.
+    */
+   public int max() {
+      checkNotEmpty();
+      int t = root;
+      while (right[t] != 0) {
+         t = right[t];
+      }
+      return key[t];
+   }
+
+
+   /**
+    * Selects the kth minimum distinct value as Selector.kmin does. This
+    * method throws IllegalArgumentException if this multiset is empty or
+    * there is no kth minimum value.
+    */
+   public int kmin(int k) {
+      checkNotEmpty();
+      if (k < 1 || k > distinct[root]) {
+         throw new IllegalArgumentException(k + "th min does not exist.");
+      }
+      int t = root;
+      while (true) {
+         int below = distinct[left[t]];
+         if (k <= below) {
+            t = left[t];
+         }
+         else if (k == below + 1) {
+            return key[t];
+         }
+         else {
+            k -= below + 1;
+            t = right[t];
+         }
+      }
+   }
+
+
+   /**
+    * Selects the kth maximum distinct value as Selector.kmax does. This
+    * method throws IllegalArgumentException if this multiset is empty or
+    * there is no kth maximum value.
+    */
+   public int kmax(int k) {
+      checkNotEmpty();
+      if (k < 1 || k > distinct[root]) {
+         throw new IllegalArgumentException(k + "th max does not exist.");
+      }
+      return kmin(distinct[root] - k + 1);
+   }
+
+
+   /**
+    * Returns the smallest value that is greater than or equal to key. This
+    * method throws IllegalArgumentException if this multiset is empty or
+    * there is no qualifying value. Integer.MAX_VALUE is returned when it is
+    * the ceiling, although Selector.ceiling throws in that case.
+    */
+   public int ceiling(int key) {
+      checkNotEmpty();
+      int t = root;
+      int best = 0;
+      while (t != 0) {
+         if (this.key[t] >= key) {
+            best = t;
+            t = left[t];
+         }
+         else {
+            t = right[t];
+         }
+      }
+      if (best == 0) {
+         throw new IllegalArgumentException("No acceptable i value");
+      }
+      return this.key[best];
+   }
+
+
+   /**
+    * Returns the largest value that is less than or equal to key. This
+    * method throws IllegalArgumentException if this multiset is empty or
+    * there is no qualifying value. Integer.MIN_VALUE is returned when it is
+    * the floor, although Selector.floor throws in that case.
+    */
+   public int floor(int key) {
+      checkNotEmpty();
+      int t = root;
+      int best = 0;
+      while (t != 0) {
+         if (this.key[t] <= key) {
+            best = t;
+            t = right[t];
+         }
+         else {
+            t = left[t];
+         }
+      }
+      if (best == 0) {
+         throw new IllegalArgumentException("No acceptable i value");
+      }
+      return this.key[best];
+   }
+
+
+   /**
+    * Returns how many values, including duplicates, lie in the range
+    * [low..high]; that is, the length of the array Selector.range would
+    * return for the same values.
+    */
+   public long rangeCount(int low, int high) {
+      if (low > high) {
+         return 0;
+      }
+      return countBelow(high, true) - countBelow(low, false);
+   }
+
+
+   /**
+    * Returns how many values are less than bound, or less than or equal
+    * to it when inclusive.
+    */
+   private long countBelow(int bound, boolean inclusive) {
+      long below = 0;
+      int t = root;
+      while (t != 0) {
+         if (key[t] < bound || (inclusive && key[t] == bound)) {
+            below += total[left[t]] + count[t];
+            t = right[t];
+         }
+         else {
+            t = left[t];
+         }
+      }
+      return below;
+   }
+
+
+   /**
+    * Returns the node holding value, or 0 if there is none.
+    */
+   private int find(int value) {
+      int t = root;
+      while (t != 0 && key[t] != value) {
+         t = value < key[t] ? left[t] : right[t];
+      }
+      return t;
+   }
+
+
+   /**
+    * Splits tree t into splitLeft, the values less than v (or less than or
+    * equal to v when inclusive), and splitRight, the rest.
+    */
+   private void split(int t, int v, boolean inclusive) {
+      if (t == 0) {
+         splitLeft = 0;
+         splitRight = 0;
+         return;
+      }
+      if (key[t] < v || (inclusive && key[t] == v)) {
+         split(right[t], v, inclusive);
+         right[t] = splitLeft;
+         pull(t);
+         splitLeft = t;
+      }
+      else {
+         split(left[t], v, inclusive);
+         left[t] = splitRight;
+         pull(t);
+         splitRight = t;
+      }
+   }
+
+
+   /**
+    * Joins trees a and b, where every value in a is less than every value
+    * in b, and returns the root of the result.
+    */
+   private int merge(int a, int b) {
+      if (a == 0) {
+         return b;
+      }
+      if (b == 0) {
+         return a;
+      }
+      if (priority[a] > priority[b]) {
+         right[a] = merge(right[a], b);
+         pull(a);
+         return a;
+      }
+      left[b] = merge(a, left[b]);
+      pull(b);
+      return b;
+   }
+
+
+   /**
+    * Recomputes the subtree sizes of node t from its children.
+    */
+   private void pull(int t) {
+      distinct[t] = 1 + distinct[left[t]] + distinct[right[t]];
+      total[t] = count[t] + total[left[t]] + total[right[t]];
+   }
+
+
+   /**
+    * Returns a fresh leaf node holding one occurrence of value.
+    */
+   private int newNode(int value) {
+      int t;
+      if (free != 0) {
+         t = free;
+         free = left[t];
+      }
+      else {
+         if (nextNode == key.length) {
+            int capacity = key.length * 2;
+            key = Arrays.copyOf(key, capacity);
+            count = Arrays.copyOf(count, capacity);
+            left = Arrays.copyOf(left, capacity);
+            right = Arrays.copyOf(right, capacity);
+            priority = Arrays.copyOf(priority, capacity);
+            distinct = Arrays.copyOf(distinct, capacity);
+            total = Arrays.copyOf(total, capacity);
+         }
+         t = nextNode++;
+      }
+      // xorshift priorities keep the treap balanced in expectation
+      seed ^= seed << 13;
+      seed ^= seed >>> 17;
+      seed ^= seed << 5;
+      key[t] = value;
+      count[t] = 1;
+      left[t] = 0;
+      right[t] = 0;
+      priority[t] = seed;
+      distinct[t] = 1;
+      total[t] = 1;
+      return t;
+   }
+
+
+   /**
+    * Returns node t to the free list.
+    */
+   private void freeNode(int t) {
+      left[t] = free;
+      right[t] = 0;
+      free = t;
+   }
+
+
+   /**
+    * Throws IllegalArgumentException if this multiset is empty.
+    */
+   private void checkNotEmpty() {
+      if (root == 0) {
+         throw new IllegalArgumentException("Multiset must not be empty.");
+      }
+   }
+}
@@ -0,0 +1,464 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * IntQuantileSketch.java
+ * A KLL quantile sketch over a stream of ints (Karnin, Lang and Liberty,
+ * "Optimal Quantile Approximation in Streams", 2016). Values are added
+ * one at a time or in batches and are never stored in full: the sketch
+ * keeps a few hundred values in levels, where each value at level h
+ * stands for 2^h values of the stream. When the levels fill up, the
+ * lowest full level is sorted and every other value is promoted, so
+ * memory stays O(k) no matter how long the stream runs.
+ *
+ * min and max are exact. The other queries mirror Selector but answer
+ * approximately: every estimated rank is within normalizedRankError()
+ * times size() of the true rank with high probability. Unlike
+ * Selector.kmin, ranks here count duplicate values, since the number of
+ * distinct values cannot be recovered from a sketch of this size.
+ *
+ * A sketch is not safe for concurrent updates. To sketch a stream across
+ * threads, give each thread its own sketch and merge them afterwards.
+ *
+ * @author  Will Humphlett (wah0028@auburn.edu)
+ * @version 10/17/2026
+ *
+ */
+public final class IntQuantileSketch {
+
+   /** Default accuracy parameter, about 1.3% rank error. */
+   public static final int DEFAULT_K = 200;
+
+   /** Smallest capacity of any level. */
+   private static final int MIN_WIDTH = 8;
+
+   /** accuracy parameter: capacity of the top level. */
+   private final int k;
+
+   /** retained values of each level; level h values weigh 2^h. */
+   private int[][] levels;
+
+   /** number of retained values in each level. */
+   private int[] sizes;
+
+   /** number of levels in use. */
+   private int height;
+
+   /** number of retained values, and the total capacity of all levels. */
+   private int retained;
+   private int capacity;
+
+   /** number of values added to the sketch. */
+   private long n;
+
+   /** exact minimum and maximum of the stream. */
+   private int min;
+   private int max;
+
+   /** coin flips for compaction. */
+   private final Random random;
+
+   /** sorted retained values and their cumulative weights, or null. */
+   private int[] sortedValues;
+   private long[] cumulative;
+
+   /**
+    * Builds an empty sketch with the default accuracy.
+    */
+   public IntQuantileSketch() {
+      this(DEFAULT_K);
+   }
+
+   /**
+    * Builds an empty sketch with accuracy parameter k. Larger k gives
+    * smaller error and uses proportionally more memory. This constructor
+    * throws IllegalArgumentException if k is less than MIN_WIDTH.
+    */
+   public IntQuantileSketch(int k) {
+      if (k < MIN_WIDTH) {
+         throw new IllegalArgumentException("k must be at least " + MIN_WIDTH);
+      }
+      this.k = k;
+      levels = new int[][] {new int[k]};
+      sizes = new int[1];
+      height = 1;
+      capacity = levelCapacity(0);
+      random = new Random();
+   }
+
+
+   /**
+    * Adds value to the sketch.
+    */
+   public void update(int value) {
+      if (n == 0) {
+         min = value;
+         max = value;
+      }
+      else {
+         min = Math.min(min, value);
+         max = Math.max(max, value);
+      }
+      n++;
+      append(0, value);
+      sortedValues = null;
+      if (retained > capacity) {
+         compress();
+      }
+   }
+
+
+   /**
+    * Adds every value in a to the sketch. This method throws
+    * IllegalArgumentException if a is null.
+    */
+   public void update(int[] a) {
+      if (a == null) {
+         throw new IllegalArgumentException("Array must not be null.");
+      }
+      for (int value : a) {
+         update(value);
+      }
+   }
+
+
+   /**
+    * Adds every value sketched by other to this sketch. The result is as
+    * accurate as a single sketch that saw both streams. other is not
+    * changed, and must not be updated while the merge runs. Merging a
+    * sketch into itself counts its stream twice.
+    */
+   public void merge(IntQuantileSketch other) {
+      if (other == null) {
+         throw new IllegalArgumentException("Sketch must not be null.");
+      }
+      if (other.n == 0) {
+         return;
+      }
+      if (n == 0) {
+         min = other.min;
+         max = other.max;
+      }
+      else {
+         min = Math.min(min, other.min);
+         max = Math.max(max, other.max);
+      }
+      // Copy other's levels first: when other is this sketch, append grows them
+      int[][] values = new int[other.height][];
+      for (int h = 0; h < values.length; h++) {
+         values[h] = Arrays.copyOf(other.levels[h], other.sizes[h]);
+      }
+      n += other.n;
+      for (int h = 0; h < values.length; h++) {
+         for (int value : values[h]) {
+            append(h, value);
+         }
+      }
+      sortedValues = null;
+      while (retained > capacity) {
+         compress();
+      }
+   }
+
+
+   /**
+    * Returns the number of values added to the sketch.
+    */
+   public long size() {
+      return n;
+   }
+
+
+   /**
+    * Returns true if no values have been added.
+    */
+   public boolean isEmpty() {
+      return n == 0;
+   }
+
+
+   /**
+    * Returns the normalized rank error: with high probability every
+    * estimated rank is within this fraction of size() of the true rank.
+    * The constants are the empirical fit published for KLL sketches.
+    */
+   public double normalizedRankError() {
+      return 2.296 / Math.pow(k, 0.9723);
+   }
+
+
+   /**
+    * Selects the exact minimum value. This method throws
+    * IllegalArgumentException if the sketch is empty.
+    */
+   public int min() {
+      checkNotEmpty();
+      return min;
+   }
+
+
+   /**
+    * Selects the exact maximum value. This method throws
+    * IllegalArgumentException if the sketch is empty.
+    */
+   public int max() {
+      checkNotEmpty();
+      return max;
+   }
+
+
+   /**
+    * Returns an estimate of the kth smallest value in the stream, counting
+    * duplicates. This method throws IllegalArgumentException if the sketch
+    * is empty or k is not in [1..size()].
+    */
+   public int kmin(long k) {
+      checkNotEmpty();
+      if (k < 1 || k > n) {
+         throw new IllegalArgumentException(k + "th min does not exist.");
+      }
+      if (k == 1) {
+         return min;
+      }
+      if (k == n) {
+         return max;
+      }
+      sort();
+      int i = Arrays.binarySearch(cumulative, k);
+      if (i < 0) {
+         i = -i - 1;
+      }
+      return sortedValues[Math.min(i, sortedValues.length - 1)];
+   }
+
+
+   /**
+    * Returns an estimate of the kth largest value in the stream, counting
+    * duplicates. This method throws IllegalArgumentException if the sketch
+    * is empty or k is not in [1..size()].
+    */
+   public int kmax(long k) {
+      checkNotEmpty();
+      if (k < 1 || k > n) {
+         throw new IllegalArgumentException(k + "th max does not exist.");
+      }
+      return kmin(n - k + 1);
+   }
+
+
+   /**
+    * Returns an estimate of the value at normalized rank q, where q is in
+    * [0..1]; q = 0.5 estimates the median. This method throws
+    * IllegalArgumentException if the sketch is empty or q is out of range.
+    */
+   public int quantile(double q) {
+      checkNotEmpty();
+      if (!(q >= 0.0 && q <= 1.0)) {
+         throw new IllegalArgumentException("Rank must be in [0..1]");
+      }
+      return kmin(Math.max(1, (long) Math.ceil(q * n)));
+   }
+
+
+   /**
+    * Returns an estimate of how many values in the stream are less than or
+    * equal to value.
+    */
+   public long rank(int value) {
+      if (n == 0 || value < min) {
+         return 0;
+      }
+      if (value >= max) {
+         return n;
+      }
+      sort();
+      int i = upperBound(value);
+      return i == 0 ? 0 : cumulative[i - 1];
+   }
+
+
+   /**
+    * Returns an estimate of how many values in the stream lie in the range
+    * [low..high], counting duplicates.
+    */
+   public long rangeCount(int low, int high) {
+      if (low > high) {
+         return 0;
+      }
+      long below = low == Integer.MIN_VALUE ? 0 : rank(low - 1);
+      return rank(high) - below;
+   }
+
+
+   /**
+    * Returns an estimate of the smallest value in the stream that is
+    * greater than or equal to key: the smallest retained value at or above
+    * key, which is exact when key is at or beyond either end of the
+    * stream. This method throws IllegalArgumentException if the sketch is
+    * empty or key is greater than max().
+    */
+   public int ceiling(int key) {
+      checkNotEmpty();
+      if (key > max) {
+         throw new IllegalArgumentException("No acceptable i value");
+      }
+      if (key <= min) {
+         return min;
+      }
+      sort();
+      int i = upperBound(key - 1);
+      return i < sortedValues.length ? sortedValues[i] : max;
+   }
+
+
+   /**
+    * Returns an estimate of the largest value in the stream that is less
+    * than or equal to key: the largest retained value at or below key,
+    * which is exact when key is at or beyond either end of the stream.
+    * This method throws IllegalArgumentException if the sketch is empty or
+    * key is less than min().
+    */
+   public int floor(int key) {
+      checkNotEmpty();
+      if (key < min) {
+         throw new IllegalArgumentException("No acceptable i value");
+      }
+      if (key >= max) {
+         return max;
+      }
+      sort();
+      int i = upperBound(key);
+      return i > 0 ? sortedValues[i - 1] : min;
+   }
+
+
+   /**
+    * Appends value to level h, growing the level if needed.
+    */
+   private void append(int h, int value) {
+      if (h >= height) {
+         grow(h + 1);
+      }
+      if (sizes[h] == levels[h].length) {
+         levels[h] = Arrays.copyOf(levels[h], levels[h].length * 2);
+      }
+      levels[h][sizes[h]++] = value;
+      retained++;
+   }
+
+
+   /**
+    * Makes room for at least count levels.
+    */
+   private void grow(int count) {
+      if (count > levels.length) {
+         int old = levels.length;
+         levels = Arrays.copyOf(levels, Math.max(count, old * 2));
+         sizes = Arrays.copyOf(sizes, levels.length);
+         for (int h = old; h < levels.length; h++) {
+            levels[h] = new int[MIN_WIDTH];
+         }
+      }
+      if (count > height) {
+         height = count;
+         capacity = 0;
+         for (int i = 0; i < height; i++) {
+            capacity += levelCapacity(i);
+         }
+      }
+   }
+
+
+   /**
+    * Compacts the lowest level that has reached its capacity: sorts it and
+    * promotes every other value, starting at a random offset, to the next
+    * level. An odd value out stays behind.
+    */
+   private void compress() {
+      int h = 0;
+      while (h < height - 1 && sizes[h] < levelCapacity(h)) {
+         h++;
+      }
+      if (h == height - 1) {
+         grow(height + 1);
+      }
+      int[] level = levels[h];
+      int size = sizes[h];
+      int keep = size & 1;
+      Arrays.sort(level, keep, size);
+      for (int i = keep + (random.nextBoolean() ? 1 : 0); i < size; i += 2) {
+         append(h + 1, level[i]);
+      }
+      retained -= size - keep;
+      sizes[h] = keep;
+   }
+
+
+   /**
+    * Returns the capacity of level h: k at the top, shrinking by a factor
+    * of 2/3 per level below, and never less than MIN_WIDTH.
+    */
+   private int levelCapacity(int h) {
+      int depth = height - 1 - h;
+      return Math.max(MIN_WIDTH, (int) Math.ceil(k * Math.pow(2.0 / 3.0, depth)));
+   }
+
+
+   /**
+    * Builds the sorted view of the retained values and their cumulative
+    * weights, if it is not already current.
+    */
+   private void sort() {
+      if (sortedValues != null) {
+         return;
+      }
+      int count = retained;
+      // Pack each value with its level so one primitive sort orders both
+      long[] packed = new long[count];
+      int j = 0;
+      for (int h = 0; h < height; h++) {
+         for (int i = 0; i < sizes[h]; i++) {
+            packed[j++] = ((long) levels[h][i] << 8) | h;
+         }
+      }
+      Arrays.sort(packed);
+      sortedValues = new int[count];
+      cumulative = new long[count];
+      long total = 0;
+      for (int i = 0; i < count; i++) {
+         sortedValues[i] = (int) (packed[i] >> 8);
+         total += 1L << (packed[i] & 0xFF);
+         cumulative[i] = total;
+      }
+   }
+
+
+   /**
+    * Returns the index of the first sorted retained value greater than
+    * value.
+    */
+   private int upperBound(int value) {
+      int lo = 0;
+      int hi = sortedValues.length;
+      while (lo < hi) {
+         int mid = (lo + hi) >>> 1;
+         if (sortedValues[mid] <= value) {
+            lo = mid + 1;
+         }
+         else {
+            hi = mid;
+         }
+      }
+      return lo;
+   }
+
+
+   /**
+    * Throws IllegalArgumentException if the sketch is empty.
+    */
+   private void checkNotEmpty() {
+      if (n == 0) {
+         throw new IllegalArgumentException("Sketch must not be empty.");
+      }
+   }
+}
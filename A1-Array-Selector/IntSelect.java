@@ -0,0 +1,316 @@
+import java.util.Arrays;
+
+/**
+ * IntSelect.java
+ * Selection engine behind the kth minimum and kth maximum methods in
+ * Selector. Values are first reduced to their distinct set and then the
+ * requested rank is found with an introselect: quickselect on a
+ * median-of-three pivot that falls back to a median-of-medians pivot once
+ * its recursion budget is spent, so the selection itself is linear in
+ * the worst case. The distinct set comes from a hash table in expected
+ * linear time. Its probes are capped at a constant per value; keys that
+ * collide past the cap, and arrays too large for the table, are reduced
+ * by sorting instead, so the whole method is O(n log n) in the worst case.
+ * When the values span a small range, the distinct set comes from a
+ * presence bitset instead, in O(n + span) and already in ascending order.
+ *
+ * @author  Will Humphlett (wah0028@auburn.edu)
+ * @version 10/17/2026
+ *
+ */
+final class IntSelect {
+
+   /** Subranges at or below this length are finished by insertion sort. */
+   private static final int INSERTION_CUTOFF = 16;
+
+   /** Multiplier used to scatter keys across the hash table. */
+   private static final int HASH_MIX = 0x9E3779B9;
+
+   /** Largest array hashed; its table of 2^30 slots keeps load <= 1/2. */
+   private static final int MAX_HASHED = (1 << 29) - 1;
+
+   /** Collision probes allowed per value before the hash table gives up. */
+   private static final int PROBES_PER_VALUE = 8;
+
+   /** Largest value span handled by counting rather than comparison. */
+   static final int COUNTING_LIMIT = 1 << 22;
+
+   /**
+    * Can't instantiate this class.
+    */
+   private IntSelect() { }
+
+
+   /**
+    * Returns true if the values from min to max can be counted in a table
+    * of at most limit slots.
+    */
+   static boolean countable(int min, int max, long limit) {
+      long span = (long) max - min + 1;
+      return span <= COUNTING_LIMIT && span <= limit;
+   }
+
+
+   /**
+    * Returns a new array holding each distinct value of a exactly once.
+    * The order is ascending when the span of a is small enough for a
+    * presence bitset no larger than a itself or when the values must be
+    * sorted, and unspecified otherwise. The array a is not changed by this
+    * method.
+    */
+   static int[] distinct(int[] a) {
+      int n = a.length;
+      int min = IntKernels.min(a, 0, n);
+      int max = IntKernels.max(a, 0, n);
+      if (countable(min, max, 32L * n)) {
+         return sortedDistinct(a, min, max);
+      }
+      if (n > MAX_HASHED) {
+         return sortedUnique(a);
+      }
+      // Open addressing table at load factor <= 1/2, zero marks an empty slot
+      int bits = Math.max(2, 33 - Integer.numberOfLeadingZeros(n));
+      int[] table = new int[1 << bits];
+      int mask = table.length - 1;
+      int shift = 32 - bits;
+      int[] out = new int[n];
+      int d = 0;
+      boolean zero = false;
+      long probes = (long) PROBES_PER_VALUE * n;
+      for (int x : a) {
+         if (x == 0) {
+            if (!zero) {
+               zero = true;
+               out[d++] = 0;
+            }
+            continue;
+         }
+         int i = (x * HASH_MIX) >>> shift;
+         while (table[i] != 0 && table[i] != x) {
+            if (--probes < 0) {
+               // Keys collide by design or by bad luck; sorting is never quadratic
+               return sortedUnique(a);
+            }
+            i = (i + 1) & mask;
+         }
+         if (table[i] == 0) {
+            table[i] = x;
+            out[d++] = x;
+         }
+      }
+      return d == n ? out : Arrays.copyOf(out, d);
+   }
+
+
+   /**
+    * Returns the distinct values of a in ascending order, found by sorting
+    * a copy of a and dropping repeats.
+    */
+   private static int[] sortedUnique(int[] a) {
+      int[] out = Arrays.copyOf(a, a.length);
+      Arrays.sort(out);
+      int d = 0;
+      for (int i = 0; i < out.length; i++) {
+         if (d == 0 || out[i] != out[d - 1]) {
+            out[d++] = out[i];
+         }
+      }
+      return d == out.length ? out : Arrays.copyOf(out, d);
+   }
+
+
+   /**
+    * Returns the distinct values of a in ascending order, found by marking
+    * each value in a bitset over [min..max] and reading the set bits back.
+    */
+   private static int[] sortedDistinct(int[] a, int min, int max) {
+      long[] bits = new long[(int) (((long) max - min + 64) >>> 6)];
+      for (int x : a) {
+         int off = x - min;
+         bits[off >>> 6] |= 1L << off;
+      }
+      int d = 0;
+      for (long word : bits) {
+         d += Long.bitCount(word);
+      }
+      int[] out = new int[d];
+      int j = 0;
+      for (int w = 0; w < bits.length; w++) {
+         long word = bits[w];
+         while (word != 0) {
+            out[j++] = min + ((w << 6) | Long.numberOfTrailingZeros(word));
+            word &= word - 1;
+         }
+      }
+      return out;
+   }
+
+
+   /**
+    * Returns the value that would occupy index k of a[lo..hi) if that
+    * subrange were sorted. The subrange is rearranged by this method.
+    */
+   static int select(int[] a, int lo, int hi, int k) {
+      int budget = 2 * (32 - Integer.numberOfLeadingZeros(hi - lo));
+      while (hi - lo > INSERTION_CUTOFF) {
+         int pivot;
+         if (budget-- > 0) {
+            pivot = medianOfThree(a[lo], a[(lo + hi) >>> 1], a[hi - 1]);
+         }
+         else {
+            pivot = medianOfMedians(a, lo, hi);
+         }
+         // Three-way partition: [lo, lt) < pivot, [lt, gt) == pivot, [gt, hi) > pivot
+         int lt = lo;
+         int gt = hi;
+         int i = lo;
+         while (i < gt) {
+            int x = a[i];
+            if (x < pivot) {
+               a[i++] = a[lt];
+               a[lt++] = x;
+            }
+            else if (x > pivot) {
+               a[i] = a[--gt];
+               a[gt] = x;
+            }
+            else {
+               i++;
+            }
+         }
+         if (k < lt) {
+            hi = lt;
+         }
+         else if (k >= gt) {
+            lo = gt;
+         }
+         else {
+            return pivot;
+         }
+      }
+      insertionSort(a, lo, hi);
+      return a[k];
+   }
+
+
+   /**
+    * Rearranges a so that for every index p in positions, a[p] holds the
+    * value that would be there if a were sorted. The positions must be in
+    * ascending order; repeats are allowed. Each partition is shared by all
+    * the positions that fall in it, and a subrange holding no position is
+    * never touched again.
+    */
+   static void multiSelect(int[] a, int[] positions) {
+      int budget = 2 * (32 - Integer.numberOfLeadingZeros(a.length));
+      multiSelect(a, 0, a.length, positions, 0, positions.length, budget);
+   }
+
+
+   /**
+    * Places the positions[plo..phi) of a[lo..hi), all of which lie in that
+    * subrange.
+    */
+   private static void multiSelect(int[] a, int lo, int hi, int[] positions,
+                                   int plo, int phi, int budget) {
+      while (plo < phi) {
+         if (phi - plo == 1) {
+            select(a, lo, hi, positions[plo]);
+            return;
+         }
+         if (hi - lo <= INSERTION_CUTOFF) {
+            insertionSort(a, lo, hi);
+            return;
+         }
+         int pivot;
+         if (budget-- > 0) {
+            pivot = medianOfThree(a[lo], a[(lo + hi) >>> 1], a[hi - 1]);
+         }
+         else {
+            pivot = medianOfMedians(a, lo, hi);
+         }
+         int lt = lo;
+         int gt = hi;
+         int i = lo;
+         while (i < gt) {
+            int x = a[i];
+            if (x < pivot) {
+               a[i++] = a[lt];
+               a[lt++] = x;
+            }
+            else if (x > pivot) {
+               a[i] = a[--gt];
+               a[gt] = x;
+            }
+            else {
+               i++;
+            }
+         }
+         // Split the positions around the pivot run [lt, gt)
+         int left = plo;
+         while (left < phi && positions[left] < lt) {
+            left++;
+         }
+         int right = left;
+         while (right < phi && positions[right] < gt) {
+            right++;
+         }
+         // Recurse on the side with fewer positions, loop on the other
+         if (left - plo < phi - right) {
+            multiSelect(a, lo, lt, positions, plo, left, budget);
+            lo = gt;
+            plo = right;
+         }
+         else {
+            multiSelect(a, gt, hi, positions, right, phi, budget);
+            hi = lt;
+            phi = left;
+         }
+      }
+   }
+
+
+   /**
+    * Returns the median of the medians of the groups of five in a[lo..hi).
+    * The group medians are gathered at the front of the subrange.
+    */
+   private static int medianOfMedians(int[] a, int lo, int hi) {
+      int m = lo;
+      for (int g = lo; g < hi; g += 5) {
+         int end = Math.min(g + 5, hi);
+         insertionSort(a, g, end);
+         int med = (g + end - 1) >>> 1;
+         int tmp = a[m];
+         a[m] = a[med];
+         a[med] = tmp;
+         m++;
+      }
+      return select(a, lo, m, (lo + m - 1) >>> 1);
+   }
+
+
+   /**
+    * Returns the median of three values.
+    */
+   private static int medianOfThree(int x, int y, int z) {
+      if (x < y) {
+         return y < z ? y : Math.max(x, z);
+      }
+      return x < z ? x : Math.max(y, z);
+   }
+
+
+   /**
+    * Sorts a[lo..hi) in ascending order.
+    */
+   static void insertionSort(int[] a, int lo, int hi) {
+      for (int i = lo + 1; i < hi; i++) {
+         int x = a[i];
+         int j = i - 1;
+         while (j >= lo && a[j] > x) {
+            a[j + 1] = a[j];
+            j--;
+         }
+         a[j + 1] = x;
+      }
+   }
+}
@@ -0,0 +1,388 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * MappedSelector.java
+ * Selection methods over a binary file of 32-bit ints that may be larger
+ * than the heap. The file is memory-mapped in segments and scanned through
+ * a small reusable buffer, so no int[] of the whole data is ever built.
+ * kmin and kmax work in several passes: the first pass builds a histogram
+ * of the high 16 bits of every value, and each later pass marks the values
+ * of a batch of those buckets in bitsets until the bucket holding the
+ * requested distinct rank is found. The bitsets for one pass never take
+ * more than the memory budget.
+ *
+ * @author  Will Humphlett (wah0028@auburn.edu)
+ * @version 10/17/2026
+ *
+ */
+public final class MappedSelector {
+
+   /** Default bytes of bitsets allowed per kmin or kmax pass. */
+   public static final long DEFAULT_MEMORY_BUDGET = 16L << 20;
+
+   /** Largest number of ints in a single mapping (1 GiB). */
+   private static final int SEGMENT_INTS = 1 << 28;
+
+   /** Number of ints copied out of the mapping at a time. */
+   private static final int CHUNK = 1 << 13;
+
+   /** Number of buckets, one per value of the high 16 bits. */
+   private static final int BUCKETS = 1 << 16;
+
+   /** Longs in the bitset of one bucket. */
+   private static final int BUCKET_WORDS = (1 << 16) / 64;
+
+   /** the mapped data, split into segments of at most SEGMENT_INTS. */
+   private final IntBuffer[] segments;
+
+   /** number of ints in all segments. */
+   private final long size;
+
+   /** bytes of bitsets allowed per kmin or kmax pass. */
+   private long budget = DEFAULT_MEMORY_BUDGET;
+
+   /**
+    * Builds a selector over the file named by filename, read as big-endian
+    * ints (the format written by DataOutputStream).
+    */
+   public MappedSelector(String filename) throws IOException {
+      this(filename, ByteOrder.BIG_ENDIAN);
+   }
+
+   /**
+    * Builds a selector over the file named by filename, read as ints in the
+    * given byte order. This constructor throws IllegalArgumentException if
+    * the file length is not a multiple of four bytes.
+    */
+   public MappedSelector(String filename, ByteOrder order) throws IOException {
+      try (FileChannel channel = FileChannel.open(Paths.get(filename),
+            StandardOpenOption.READ)) {
+         long bytes = channel.size();
+         if (bytes % 4 != 0) {
+            throw new IllegalArgumentException("File length must be a multiple of 4.");
+         }
+         size = bytes / 4;
+         int count = (int) ((size + SEGMENT_INTS - 1) / SEGMENT_INTS);
+         segments = new IntBuffer[count];
+         for (int i = 0; i < count; i++) {
+            long first = (long) i * SEGMENT_INTS;
+            long ints = Math.min(SEGMENT_INTS, size - first);
+            // Mappings stay valid after the channel is closed
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, first * 4, ints * 4)
+               .order(order).asIntBuffer();
+         }
+      }
+   }
+
+   /**
+    * Builds a selector over the ints between the position and limit of
+    * region, read in the region's byte order. The region is typically a
+    * MappedByteBuffer. Later changes to its content are seen by this
+    * selector; changes to its position and limit are not.
+    */
+   public MappedSelector(ByteBuffer region) {
+      if (region == null) {
+         throw new IllegalArgumentException("Region must not be null.");
+      }
+      IntBuffer ints = region.slice().order(region.order()).asIntBuffer();
+      segments = new IntBuffer[] {ints};
+      size = ints.remaining();
+   }
+
+
+   /**
+    * Sets the number of bytes of bitsets a single kmin or kmax pass may
+    * use. A larger budget means fewer passes over the data. The budget is
+    * never taken to be less than one bucket (8 KiB).
+    */
+   public void setMemoryBudget(long bytes) {
+      budget = Math.max(bytes, BUCKET_WORDS * 8L);
+   }
+
+
+   /**
+    * Returns the number of ints in the data.
+    */
+   public long size() {
+      return size;
+   }
+
+
+   /**
+    * Selects the minimum value. This method throws IllegalArgumentException
+    * if there is no data.
+    */
+   public int min() {
+      checkNotEmpty();
+      int[] buf = new int[CHUNK];
+      Cursor c = new Cursor();
+      int min = Integer.MAX_VALUE;
+      int len;
+      while ((len = c.fill(buf)) > 0) {
+         min = Math.min(min, IntKernels.min(buf, 0, len));
+      }
+      return min;
+   }
+
+
+   /**
+    * Selects the maximum value. This method throws IllegalArgumentException
+    * if there is no data.
+    */
+   public int max() {
+      checkNotEmpty();
+      int[] buf = new int[CHUNK];
+      Cursor c = new Cursor();
+      int max = Integer.MIN_VALUE;
+      int len;
+      while ((len = c.fill(buf)) > 0) {
+         max = Math.max(max, IntKernels.max(buf, 0, len));
+      }
+      return max;
+   }
+
+
+   /**
+    * Passes every value in the range [low..high] to sink, in file order,
+    * including duplicate values, and returns how many were passed. This
+    * method throws IllegalArgumentException if there is no data.
+    */
+   public long range(int low, int high, IntConsumer sink) {
+      checkNotEmpty();
+      int[] buf = new int[CHUNK];
+      Cursor c = new Cursor();
+      long count = 0;
+      int len;
+      while ((len = c.fill(buf)) > 0) {
+         for (int i = 0; i < len; i++) {
+            if (buf[i] >= low && buf[i] <= high) {
+               sink.accept(buf[i]);
+               count++;
+            }
+         }
+      }
+      return count;
+   }
+
+
+   /**
+    * Returns the smallest value that is greater than or equal to key. This
+    * method throws IllegalArgumentException if there is no data or no
+    * qualifying value. Unlike Selector.ceiling, which treats
+    * Integer.MAX_VALUE as no value, it returns Integer.MAX_VALUE when that
+    * is the ceiling.
+    */
+   public int ceiling(int key) {
+      checkNotEmpty();
+      int[] buf = new int[CHUNK];
+      Cursor c = new Cursor();
+      int min = Integer.MAX_VALUE;
+      boolean found = false;
+      int len;
+      while ((len = c.fill(buf)) > 0) {
+         min = Math.min(min, IntKernels.ceiling(buf, 0, len, key));
+         found = found || IntKernels.max(buf, 0, len) >= key;
+      }
+      if (!found) {
+         throw new IllegalArgumentException("No acceptable i value");
+      }
+      return min;
+   }
+
+
+   /**
+    * Returns the largest value that is less than or equal to key. This
+    * method throws IllegalArgumentException if there is no data or no
+    * qualifying value. Unlike Selector.floor, which treats
+    * Integer.MIN_VALUE as no value, it returns Integer.MIN_VALUE when that
+    * is the floor.
+    */
+   public int floor(int key) {
+      checkNotEmpty();
+      int[] buf = new int[CHUNK];
+      Cursor c = new Cursor();
+      int max = Integer.MIN_VALUE;
+      boolean found = false;
+      int len;
+      while ((len = c.fill(buf)) > 0) {
+         max = Math.max(max, IntKernels.floor(buf, 0, len, key));
+         found = found || IntKernels.min(buf, 0, len) <= key;
+      }
+      if (!found) {
+         throw new IllegalArgumentException("No acceptable i value");
+      }
+      return max;
+   }
+
+
+   /**
+    * Selects the kth minimum value as defined by Selector.kmin. This method
+    * throws IllegalArgumentException if there is no data or there is no
+    * kth minimum value.
+    */
+   public int kmin(long k) {
+      checkNotEmpty();
+      if (k < 1 || k > size) {
+         throw new IllegalArgumentException(k + "th min does not exist.");
+      }
+      return select(k, true);
+   }
+
+
+   /**
+    * Selects the kth maximum value as defined by Selector.kmax. This method
+    * throws IllegalArgumentException if there is no data or there is no
+    * kth maximum value.
+    */
+   public int kmax(long k) {
+      checkNotEmpty();
+      if (k < 1 || k > size) {
+         throw new IllegalArgumentException(k + "th max does not exist.");
+      }
+      return select(k, false);
+   }
+
+
+   /**
+    * Finds the kth distinct value from the bottom (ascending) or from the
+    * top. Buckets are visited in that order; each pass resolves the exact
+    * distinct count of as many non-empty buckets as the budget allows.
+    */
+   private int select(long rank, boolean ascending) {
+      long k = rank;
+      // Pass one: occurrences per bucket of the high 16 bits
+      long[] counts = new long[BUCKETS];
+      int[] buf = new int[CHUNK];
+      Cursor c = new Cursor();
+      int len;
+      while ((len = c.fill(buf)) > 0) {
+         for (int i = 0; i < len; i++) {
+            counts[bucket(buf[i])]++;
+         }
+      }
+      int batch = (int) Math.min(BUCKETS, budget / (BUCKET_WORDS * 8L));
+      int[] slotOf = new int[BUCKETS];
+      int[] order = new int[batch];
+      int next = 0;
+      while (next < BUCKETS) {
+         // Gather the next batch of non-empty buckets in visiting order
+         Arrays.fill(slotOf, -1);
+         int slots = 0;
+         while (next < BUCKETS && slots < batch) {
+            int b = ascending ? next : BUCKETS - 1 - next;
+            next++;
+            if (counts[b] > 0) {
+               slotOf[b] = slots;
+               order[slots++] = b;
+            }
+         }
+         if (slots == 0) {
+            break;
+         }
+         // One more pass: mark the low 16 bits of values in the batch
+         long[] bits = new long[slots * BUCKET_WORDS];
+         c = new Cursor();
+         while ((len = c.fill(buf)) > 0) {
+            for (int i = 0; i < len; i++) {
+               int slot = slotOf[bucket(buf[i])];
+               if (slot >= 0) {
+                  int low = buf[i] & 0xFFFF;
+                  bits[slot * BUCKET_WORDS + (low >>> 6)] |= 1L << low;
+               }
+            }
+         }
+         for (int s = 0; s < slots; s++) {
+            int distinct = 0;
+            for (int w = 0; w < BUCKET_WORDS; w++) {
+               distinct += Long.bitCount(bits[s * BUCKET_WORDS + w]);
+            }
+            if (k <= distinct) {
+               int low = nthBit(bits, s * BUCKET_WORDS, (int) k, ascending);
+               return ((order[s] << 16) | low) ^ Integer.MIN_VALUE;
+            }
+            k -= distinct;
+         }
+      }
+      throw new IllegalArgumentException(rank + "th " + (ascending ? "min" : "max")
+         + " does not exist.");
+   }
+
+
+   /**
+    * Returns the bucket of x: its high 16 bits, with the sign flipped so
+    * buckets are in ascending value order.
+    */
+   private static int bucket(int x) {
+      return (x ^ Integer.MIN_VALUE) >>> 16;
+   }
+
+
+   /**
+    * Returns the position of the nth set bit (n is 1-based) of the bucket
+    * bitset starting at bits[from], counting from the lowest bit when
+    * ascending and from the highest otherwise.
+    */
+   private static int nthBit(long[] bits, int from, int n, boolean ascending) {
+      for (int i = 0; i < BUCKET_WORDS; i++) {
+         int w = ascending ? i : BUCKET_WORDS - 1 - i;
+         long word = bits[from + w];
+         int ones = Long.bitCount(word);
+         if (n > ones) {
+            n -= ones;
+            continue;
+         }
+         while (--n > 0) {
+            // Clear the lowest or highest set bit
+            word = ascending ? word & (word - 1) : word & ~Long.highestOneBit(word);
+         }
+         int bit = ascending ? Long.numberOfTrailingZeros(word)
+            : 63 - Long.numberOfLeadingZeros(word);
+         return (w << 6) | bit;
+      }
+      throw new IllegalStateException("Bit count mismatch");
+   }
+
+
+   /**
+    * Throws IllegalArgumentException if there is no data.
+    */
+   private void checkNotEmpty() {
+      if (size == 0) {
+         throw new IllegalArgumentException("Array must not be empty.");
+      }
+   }
+
+
+   /**
+    * Copies the data, in order, into a caller's buffer a chunk at a time.
+    */
+   private final class Cursor {
+      private int segment;
+      private IntBuffer view;
+
+      /**
+       * Fills buf with the next values and returns how many were copied,
+       * or 0 when the data is exhausted.
+       */
+      int fill(int[] buf) {
+         while (view == null || !view.hasRemaining()) {
+            if (segment == segments.length) {
+               return 0;
+            }
+            view = segments[segment++].duplicate();
+            view.rewind();
+         }
+         int len = Math.min(buf.length, view.remaining());
+         view.get(buf, 0, len);
+         return len;
+      }
+   }
+}
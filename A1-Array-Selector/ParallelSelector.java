@@ -0,0 +1,399 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * ParallelSelector.java
+ * Fork/join versions of the scanning methods in Selector. Each method
+ * returns exactly what its Selector counterpart returns for the same
+ * arguments. Arrays shorter than SEQUENTIAL_THRESHOLD are handed straight
+ * to Selector, since splitting them costs more than it saves. By default
+ * work runs in the common ForkJoinPool; every method also accepts a
+ * caller-supplied pool, and throws IllegalArgumentException if it is null.
+ *
+ * @author  Will Humphlett (wah0028@auburn.edu)
+ * @version 10/17/2026
+ *
+ */
+public final class ParallelSelector {
+
+   /** Arrays shorter than this are processed sequentially by Selector. */
+   public static final int SEQUENTIAL_THRESHOLD = 1 << 17;
+
+   /** Smallest subrange a single task will scan on its own. */
+   private static final int LEAF_SIZE = 1 << 14;
+
+   /**
+    * Can't instantiate this class.
+    */
+   private ParallelSelector() { }
+
+
+   /**
+    * Selects the minimum value from the array a as Selector.min does,
+    * using the common pool.
+    */
+   public static int min(int[] a) {
+      return min(a, ForkJoinPool.commonPool());
+   }
+
+
+   /**
+    * Selects the minimum value from the array a as Selector.min does,
+    * using the given pool.
+    */
+   public static int min(int[] a, ForkJoinPool pool) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException("Array must not be empty.");
+      }
+      if (pool == null) {
+         throw new IllegalArgumentException("Pool must not be null.");
+      }
+      if (a.length < SEQUENTIAL_THRESHOLD) {
+         return Selector.min(a);
+      }
+      Reduce task = new Min(a, 0, a.length, leafSize(a, pool));
+      pool.invoke(task);
+      return task.result;
+   }
+
+
+   /**
+    * Selects the maximum value from the array a as Selector.max does,
+    * using the common pool.
+    */
+   public static int max(int[] a) {
+      return max(a, ForkJoinPool.commonPool());
+   }
+
+
+   /**
+    * Selects the maximum value from the array a as Selector.max does,
+    * using the given pool.
+    */
+   public static int max(int[] a, ForkJoinPool pool) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException("Array must not be empty.");
+      }
+      if (pool == null) {
+         throw new IllegalArgumentException("Pool must not be null.");
+      }
+      if (a.length < SEQUENTIAL_THRESHOLD) {
+         return Selector.max(a);
+      }
+      Reduce task = new Max(a, 0, a.length, leafSize(a, pool));
+      pool.invoke(task);
+      return task.result;
+   }
+
+
+   /**
+    * Returns the values of a in the range [low..high] as Selector.range
+    * does, using the common pool.
+    */
+   public static int[] range(int[] a, int low, int high) {
+      return range(a, low, high, ForkJoinPool.commonPool());
+   }
+
+
+   /**
+    * Returns the values of a in the range [low..high] as Selector.range
+    * does, using the given pool. The array is cut into fixed chunks; the
+    * matches in each chunk are counted in parallel, the counts are turned
+    * into output offsets, and then each chunk copies its matches to its
+    * own offset in parallel. The values therefore appear in the same order
+    * as in a.
+    */
+   public static int[] range(int[] a, int low, int high, ForkJoinPool pool) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException("Array must not be empty.");
+      }
+      if (pool == null) {
+         throw new IllegalArgumentException("Pool must not be null.");
+      }
+      if (a.length < SEQUENTIAL_THRESHOLD) {
+         return Selector.range(a, low, high);
+      }
+      int chunk = leafSize(a, pool);
+      int chunks = (a.length + chunk - 1) / chunk;
+      // Phase one: count matches per chunk
+      int[] offsets = new int[chunks + 1];
+      pool.invoke(new RangeTask(a, low, high, chunk, 0, chunks, offsets, null));
+      // Turn counts into starting offsets
+      int total = 0;
+      for (int c = 0; c < chunks; c++) {
+         int count = offsets[c];
+         offsets[c] = total;
+         total += count;
+      }
+      offsets[chunks] = total;
+      // Phase two: each chunk copies its matches to its own offset
+      int[] retArray = new int[total];
+      pool.invoke(new RangeTask(a, low, high, chunk, 0, chunks, offsets, retArray));
+      return retArray;
+   }
+
+
+   /**
+    * Returns the smallest value in a that is greater than or equal to key
+    * as Selector.ceiling does, using the common pool.
+    */
+   public static int ceiling(int[] a, int key) {
+      return ceiling(a, key, ForkJoinPool.commonPool());
+   }
+
+
+   /**
+    * Returns the smallest value in a that is greater than or equal to key
+    * as Selector.ceiling does, using the given pool.
+    */
+   public static int ceiling(int[] a, int key, ForkJoinPool pool) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException("Array must not be empty.");
+      }
+      if (pool == null) {
+         throw new IllegalArgumentException("Pool must not be null.");
+      }
+      if (a.length < SEQUENTIAL_THRESHOLD) {
+         return Selector.ceiling(a, key);
+      }
+      Reduce task = new Ceiling(a, 0, a.length, leafSize(a, pool), key);
+      pool.invoke(task);
+      if (task.result == Integer.MAX_VALUE) {
+         throw new IllegalArgumentException("No acceptable i value");
+      }
+      return task.result;
+   }
+
+
+   /**
+    * Returns the largest value in a that is less than or equal to key as
+    * Selector.floor does, using the common pool.
+    */
+   public static int floor(int[] a, int key) {
+      return floor(a, key, ForkJoinPool.commonPool());
+   }
+
+
+   /**
+    * Returns the largest value in a that is less than or equal to key as
+    * Selector.floor does, using the given pool.
+    */
+   public static int floor(int[] a, int key, ForkJoinPool pool) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException("Array must not be empty.");
+      }
+      if (pool == null) {
+         throw new IllegalArgumentException("Pool must not be null.");
+      }
+      if (a.length < SEQUENTIAL_THRESHOLD) {
+         return Selector.floor(a, key);
+      }
+      Reduce task = new Floor(a, 0, a.length, leafSize(a, pool), key);
+      pool.invoke(task);
+      if (task.result == Integer.MIN_VALUE) {
+         throw new IllegalArgumentException("No acceptable i value");
+      }
+      return task.result;
+   }
+
+
+   /**
+    * Returns the leaf size for a, aiming at a few tasks per worker.
+    */
+   private static int leafSize(int[] a, ForkJoinPool pool) {
+      return Math.max(LEAF_SIZE, a.length / (pool.getParallelism() * 4));
+   }
+
+
+   /**
+    * Splits a[lo..hi) in half until the leaf size is reached, scans each
+    * leaf, and combines the two halves' results on the way back up.
+    */
+   @SuppressWarnings("serial")
+   private abstract static class Reduce extends RecursiveAction {
+      final int[] a;
+      final int lo;
+      final int hi;
+      final int leaf;
+      int result;
+
+      Reduce(int[] a, int lo, int hi, int leaf) {
+         this.a = a;
+         this.lo = lo;
+         this.hi = hi;
+         this.leaf = leaf;
+      }
+
+      /** Returns a task over a[from..to) of the same kind as this one. */
+      abstract Reduce split(int from, int to);
+
+      /** Scans a[lo..hi) sequentially. */
+      abstract int scan();
+
+      /** Combines the results of two adjacent subranges. */
+      abstract int combine(int left, int right);
+
+      @Override
+      protected void compute() {
+         if (hi - lo <= leaf) {
+            result = scan();
+            return;
+         }
+         int mid = (lo + hi) >>> 1;
+         Reduce left = split(lo, mid);
+         Reduce right = split(mid, hi);
+         invokeAll(left, right);
+         result = combine(left.result, right.result);
+      }
+   }
+
+
+   /** Minimum of a subrange. */
+   @SuppressWarnings("serial")
+   private static final class Min extends Reduce {
+      Min(int[] a, int lo, int hi, int leaf) {
+         super(a, lo, hi, leaf);
+      }
+
+      @Override
+      Reduce split(int from, int to) {
+         return new Min(a, from, to, leaf);
+      }
+
+      @Override
+      int scan() {
+         return IntKernels.min(a, lo, hi);
+      }
+
+      @Override
+      int combine(int left, int right) {
+         return Math.min(left, right);
+      }
+   }
+
+
+   /** Maximum of a subrange. */
+   @SuppressWarnings("serial")
+   private static final class Max extends Reduce {
+      Max(int[] a, int lo, int hi, int leaf) {
+         super(a, lo, hi, leaf);
+      }
+
+      @Override
+      Reduce split(int from, int to) {
+         return new Max(a, from, to, leaf);
+      }
+
+      @Override
+      int scan() {
+         return IntKernels.max(a, lo, hi);
+      }
+
+      @Override
+      int combine(int left, int right) {
+         return Math.max(left, right);
+      }
+   }
+
+
+   /** Ceiling of key in a subrange, Integer.MAX_VALUE if none. */
+   @SuppressWarnings("serial")
+   private static final class Ceiling extends Reduce {
+      final int key;
+
+      Ceiling(int[] a, int lo, int hi, int leaf, int key) {
+         super(a, lo, hi, leaf);
+         this.key = key;
+      }
+
+      @Override
+      Reduce split(int from, int to) {
+         return new Ceiling(a, from, to, leaf, key);
+      }
+
+      @Override
+      int scan() {
+         return IntKernels.ceiling(a, lo, hi, key);
+      }
+
+      @Override
+      int combine(int left, int right) {
+         return Math.min(left, right);
+      }
+   }
+
+
+   /** Floor of key in a subrange, Integer.MIN_VALUE if none. */
+   @SuppressWarnings("serial")
+   private static final class Floor extends Reduce {
+      final int key;
+
+      Floor(int[] a, int lo, int hi, int leaf, int key) {
+         super(a, lo, hi, leaf);
+         this.key = key;
+      }
+
+      @Override
+      Reduce split(int from, int to) {
+         return new Floor(a, from, to, leaf, key);
+      }
+
+      @Override
+      int scan() {
+         return IntKernels.floor(a, lo, hi, key);
+      }
+
+      @Override
+      int combine(int left, int right) {
+         return Math.max(left, right);
+      }
+   }
+
+
+   /**
+    * One phase of the parallel range over chunks [first..last). With no
+    * output array each chunk stores its match count in offsets; with an
+    * output array each chunk copies its matches starting at its offset.
+    */
+   @SuppressWarnings("serial")
+   private static final class RangeTask extends RecursiveAction {
+      final int[] a;
+      final int low;
+      final int high;
+      final int chunk;
+      final int first;
+      final int last;
+      final int[] offsets;
+      final int[] out;
+
+      RangeTask(int[] a, int low, int high, int chunk, int first, int last,
+                int[] offsets, int[] out) {
+         this.a = a;
+         this.low = low;
+         this.high = high;
+         this.chunk = chunk;
+         this.first = first;
+         this.last = last;
+         this.offsets = offsets;
+         this.out = out;
+      }
+
+      @Override
+      protected void compute() {
+         if (last - first > 1) {
+            int mid = (first + last) >>> 1;
+            invokeAll(new RangeTask(a, low, high, chunk, first, mid, offsets, out),
+                      new RangeTask(a, low, high, chunk, mid, last, offsets, out));
+            return;
+         }
+         int lo = first * chunk;
+         int hi = Math.min(lo + chunk, a.length);
+         if (out == null) {
+            offsets[first] = IntKernels.count(a, lo, hi, low, high);
+         }
+         else {
+            IntKernels.copy(a, lo, hi, low, high, out, offsets[first]);
+         }
+      }
+   }
+}
@@ -1,4 +1,9 @@
+import java.nio.IntBuffer;
 import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 /**
 * Defines a library of selection methods
@@ -29,13 +34,7 @@ public final class Selector {
       if (a == null || a.length == 0) {
          throw new IllegalArgumentException("Array must not be empty.");
       }
-      int min = a[0];
-      for (int test : a) {
-         if (min > test) {
-            min = test;
-         }
-      }
-      return min;
+      return IntKernels.min(a, 0, a.length);
    }
 
 
@@ -48,13 +47,7 @@ public final class Selector {
       if (a == null || a.length == 0) {
          throw new IllegalArgumentException("Array must not be empty.");
       }
-      int max = a[0];
-      for (int test : a) {
-         if (max < test) {
-            max = test;
-         }
-      }
-      return max;
+      return IntKernels.max(a, 0, a.length);
    }
 
 
@@ -70,22 +63,13 @@ public final class Selector {
       if (a == null || a.length == 0 || a.length < k) {
          throw new IllegalArgumentException("Array must not be empty.");
       }
-      // Copy and sort array
-      int[] test = Arrays.copyOf(a, a.length);
-      Arrays.sort(test);
-      // Determine kth min
-      int i = 0;
-      int tracker = 1;
-      while (tracker < k && i < test.length - 1) {
-         if (test[i] != test[++i]) {
-            tracker++;
-         }
-      }
+      // Select among distinct values only
+      int[] distinct = IntSelect.distinct(a);
       // Too many duplicates test
-      if (tracker != k) {
+      if (k < 1 || k > distinct.length) {
          throw new IllegalArgumentException(k + "th min does not exist.");
       }
-      return test[i];
+      return IntSelect.select(distinct, 0, distinct.length, k - 1);
    }
 
 
@@ -101,22 +85,39 @@ public final class Selector {
       if (a == null || a.length == 0 || a.length < k) {
          throw new IllegalArgumentException("Array must not be empty.");
       }
-      // Copy and sort array
-      int[] test = Arrays.copyOf(a, a.length);
-      Arrays.sort(test);
-      // Determine kth max
-      int i = test.length - 1;
-      int tracker = 1;
-      while (tracker < k && i > 0) {
-         if (test[i] != test[--i]) {
-            tracker++;
-         }
-      }
+      // Select among distinct values only
+      int[] distinct = IntSelect.distinct(a);
       // Too many duplicates test
-      if (tracker != k) {
+      if (k < 1 || k > distinct.length) {
          throw new IllegalArgumentException(k + "th max does not exist.");
       }
-      return test[i];
+      return IntSelect.select(distinct, 0, distinct.length, distinct.length - k);
+   }
+
+
+   /**
+    * Selects several kth minimum values from the array a at once. The
+    * value at index i of the returned array is kmin(a, ks[i]). All ranks
+    * are found by one multi-way quickselect that shares its partitions, so
+    * asking for a handful of ranks costs about as much as asking for one.
+    * This method throws IllegalArgumentException if a is null or has zero
+    * length, if ks is null, or if any ks[i] has no kth minimum value.
+    * Neither a nor ks is changed by this method.
+    */
+   public static int[] kminAll(int[] a, int[] ks) {
+      return selectAll(a, ks, true);
+   }
+
+
+   /**
+    * Selects several kth maximum values from the array a at once. The
+    * value at index i of the returned array is kmax(a, ks[i]). This method
+    * throws IllegalArgumentException if a is null or has zero length, if
+    * ks is null, or if any ks[i] has no kth maximum value. Neither a nor ks
+    * is changed by this method.
+    */
+   public static int[] kmaxAll(int[] a, int[] ks) {
+      return selectAll(a, ks, false);
    }
 
 
@@ -137,21 +138,101 @@ public final class Selector {
          throw new IllegalArgumentException("Array must not be empty.");
       }
       // Array length
-      int length = 0;
-      for (int test : a ) {
-         if (test >= low && test <= high) {
-            length++;
-         }
-      }
+      int length = IntKernels.count(a, 0, a.length, low, high);
       // Array completion
       int[] retArray = new int[length];
-      int i = 0;
-      for (int test : a) {
-         if (test >= low && test <= high) {
-            retArray[i++] = test;
+      IntKernels.copy(a, 0, a.length, low, high, retArray, 0);
+      return retArray;
+   }
+
+
+   /**
+    * Copies all the values in a in the range [low..high] into dest,
+    * starting at index offset, in the same order as range(a, low, high)
+    * returns them, and returns how many values were copied. No array is
+    * allocated. This method throws an IllegalArgumentException if a is
+    * null or has zero length, if dest is null, or if dest does not have
+    * room for every qualifying value at offset; in that case dest is not
+    * changed. The array a is not changed by this method.
+    */
+   public static int range(int[] a, int low, int high, int[] dest, int offset) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException("Array must not be empty.");
+      }
+      if (dest == null || offset < 0 || offset > dest.length) {
+         throw new IllegalArgumentException("Invalid destination.");
+      }
+      int length = IntKernels.count(a, 0, a.length, low, high);
+      if (length > dest.length - offset) {
+         throw new IllegalArgumentException("Destination is too small.");
+      }
+      IntKernels.copy(a, 0, a.length, low, high, dest, offset);
+      return length;
+   }
+
+
+   /**
+    * Puts all the values in a in the range [low..high] into dest at its
+    * current position, in the same order as range(a, low, high) returns
+    * them, and returns how many values were put. The position of dest is
+    * advanced past the last value. This method throws an
+    * IllegalArgumentException if a is null or has zero length, if dest is
+    * null, or if dest does not have enough remaining space; in that case
+    * dest is not changed. The array a is not changed by this method.
+    */
+   public static int range(int[] a, int low, int high, IntBuffer dest) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException("Array must not be empty.");
+      }
+      if (dest == null) {
+         throw new IllegalArgumentException("Invalid destination.");
+      }
+      int length = IntKernels.count(a, 0, a.length, low, high);
+      if (length > dest.remaining()) {
+         throw new IllegalArgumentException("Destination is too small.");
+      }
+      if (dest.hasArray()) {
+         // Write straight into the backing array
+         IntKernels.copy(a, 0, a.length, low, high, dest.array(),
+            dest.arrayOffset() + dest.position());
+         dest.position(dest.position() + length);
+      }
+      else {
+         for (int test : a) {
+            if (test >= low && test <= high) {
+               dest.put(test);
+            }
          }
       }
-      return retArray;
+      return length;
+   }
+
+
+   /**
+    * Returns a sequential stream of the values in a in the range
+    * [low..high], in the same order as range(a, low, high). The array is
+    * filtered lazily in a single pass as the stream is consumed, and no
+    * intermediate array is built. This method throws an
+    * IllegalArgumentException if a is null or has zero length. Changes to a
+    * made while the stream is in use may or may not be seen.
+    */
+   public static IntStream rangeStream(int[] a, int low, int high) {
+      return StreamSupport.intStream(rangeSpliterator(a, low, high), false);
+   }
+
+
+   /**
+    * Returns a spliterator over the values in a in the range [low..high],
+    * in the same order as range(a, low, high). The spliterator filters
+    * lazily and splits by index, so it can also back a parallel stream.
+    * This method throws an IllegalArgumentException if a is null or has
+    * zero length.
+    */
+   public static Spliterator.OfInt rangeSpliterator(int[] a, int low, int high) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException("Array must not be empty.");
+      }
+      return new RangeSpliterator(a, 0, a.length, low, high);
    }
 
 
@@ -166,12 +247,7 @@ public final class Selector {
       if (a == null || a.length == 0) {
          throw new IllegalArgumentException("Array must not be empty.");
       }
-      int min = Integer.MAX_VALUE;
-      for(int test : a) {
-         if (test >= key && test < min) {
-            min = test;
-         }
-      }
+      int min = IntKernels.ceiling(a, 0, a.length, key);
       if (min == Integer.MAX_VALUE) {
          throw new IllegalArgumentException("No acceptable i value");
       }
@@ -190,16 +266,108 @@ public final class Selector {
       if (a == null || a.length == 0) {
          throw new IllegalArgumentException("Array must not be empty.");
       }
-      int max = Integer.MIN_VALUE;
-      for(int test : a) {
-         if (test <= key && test > max) {
-            max = test;
-         }
-      }
+      int max = IntKernels.floor(a, 0, a.length, key);
       if (max == Integer.MIN_VALUE) {
          throw new IllegalArgumentException("No acceptable i value");
       }
       return max;
    }
 
+
+
+   /**
+    * Finds the kth minimum (or maximum) value for every k in ks.
+    */
+   private static int[] selectAll(int[] a, int[] ks, boolean min) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException("Array must not be empty.");
+      }
+      if (ks == null) {
+         throw new IllegalArgumentException("Ranks must not be null.");
+      }
+      int[] distinct = IntSelect.distinct(a);
+      // Turn each rank into a position among the sorted distinct values
+      int[] positions = new int[ks.length];
+      for (int i = 0; i < ks.length; i++) {
+         int k = ks[i];
+         if (k < 1 || k > distinct.length) {
+            throw new IllegalArgumentException(k + "th " + (min ? "min" : "max")
+               + " does not exist.");
+         }
+         positions[i] = min ? k - 1 : distinct.length - k;
+      }
+      int[] sorted = Arrays.copyOf(positions, positions.length);
+      Arrays.sort(sorted);
+      IntSelect.multiSelect(distinct, sorted);
+      int[] retArray = new int[ks.length];
+      for (int i = 0; i < ks.length; i++) {
+         retArray[i] = distinct[positions[i]];
+      }
+      return retArray;
+   }
+
+
+   /**
+    * Spliterator over the values of a[index..fence) in [low..high].
+    */
+   private static final class RangeSpliterator implements Spliterator.OfInt {
+      private final int[] a;
+      private final int low;
+      private final int high;
+      private int index;
+      private final int fence;
+
+      RangeSpliterator(int[] a, int index, int fence, int low, int high) {
+         this.a = a;
+         this.index = index;
+         this.fence = fence;
+         this.low = low;
+         this.high = high;
+      }
+
+      @Override
+      public boolean tryAdvance(IntConsumer action) {
+         while (index < fence) {
+            int test = a[index++];
+            if (test >= low && test <= high) {
+               action.accept(test);
+               return true;
+            }
+         }
+         return false;
+      }
+
+      @Override
+      public void forEachRemaining(IntConsumer action) {
+         for (int i = index; i < fence; i++) {
+            int test = a[i];
+            if (test >= low && test <= high) {
+               action.accept(test);
+            }
+         }
+         index = fence;
+      }
+
+      @Override
+      public Spliterator.OfInt trySplit() {
+         int mid = (index + fence) >>> 1;
+         if (mid <= index) {
+            return null;
+         }
+         int from = index;
+         index = mid;
+         return new RangeSpliterator(a, from, mid, low, high);
+      }
+
+      @Override
+      public long estimateSize() {
+         return fence - index;
+      }
+
+      @Override
+      public int characteristics() {
+         return ORDERED | NONNULL;
+      }
+   }
+
 }
@@ -0,0 +1,145 @@
+import java.util.Random;
+
+/**
+ * SelectorBenchmark.java
+ * Times the scan methods of Selector against plain branching loops that
+ * do the same work, for arrays of one million elements and up. Array
+ * lengths can be given on the command line; for example
+ *
+ *    java -Xmx2g SelectorBenchmark 1000000 10000000 100000000
+ *
+ * Each measurement is the best of several repetitions after a warm-up, so
+ * the numbers reflect compiled code.
+ *
+ * @author  Will Humphlett (wah0028@auburn.edu)
+ * @version 10/17/2026
+ *
+ */
+public class SelectorBenchmark {
+
+   /** Timed repetitions per measurement. */
+   private static final int REPS = 7;
+
+   /** Accumulates results so the JIT cannot discard the work. */
+   private static long sink;
+
+   /** Drives execution. */
+   public static void main(String[] args) {
+      int[] sizes = {1000000, 10000000};
+      if (args.length > 0) {
+         sizes = new int[args.length];
+         for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+         }
+      }
+      Random rand = new Random(2210);
+      for (int n : sizes) {
+         int[] a = new int[n];
+         for (int i = 0; i < n; i++) {
+            a[i] = rand.nextInt();
+         }
+         int key = rand.nextInt();
+         int low = -(1 << 29);
+         int high = 1 << 29;
+         System.out.println("n = " + n);
+         report("min", time(() -> sink += scalarMin(a)), time(() -> sink += Selector.min(a)));
+         report("max", time(() -> sink += scalarMax(a)), time(() -> sink += Selector.max(a)));
+         report("ceiling", time(() -> sink += scalarCeiling(a, key)),
+            time(() -> sink += Selector.ceiling(a, key)));
+         report("floor", time(() -> sink += scalarFloor(a, key)),
+            time(() -> sink += Selector.floor(a, key)));
+         report("range", time(() -> sink += scalarRange(a, low, high).length),
+            time(() -> sink += Selector.range(a, low, high).length));
+         System.out.println();
+      }
+      if (sink == 42) {
+         System.out.println();
+      }
+   }
+
+   /**
+    * Prints one line comparing the scalar and Selector timings.
+    */
+   private static void report(String name, long scalar, long selector) {
+      System.out.printf("   %-8s scalar %9.3f ms   selector %9.3f ms   speedup %5.2fx%n",
+         name, scalar / 1e6, selector / 1e6, (double) scalar / selector);
+   }
+
+   /**
+    * Returns the best time in nanoseconds of REPS runs of task.
+    */
+   private static long time(Runnable task) {
+      for (int i = 0; i < REPS; i++) {
+         task.run();
+      }
+      long best = Long.MAX_VALUE;
+      for (int i = 0; i < REPS; i++) {
+         long start = System.nanoTime();
+         task.run();
+         best = Math.min(best, System.nanoTime() - start);
+      }
+      return best;
+   }
+
+   /** Branching minimum loop. */
+   private static int scalarMin(int[] a) {
+      int min = a[0];
+      for (int test : a) {
+         if (min > test) {
+            min = test;
+         }
+      }
+      return min;
+   }
+
+   /** Branching maximum loop. */
+   private static int scalarMax(int[] a) {
+      int max = a[0];
+      for (int test : a) {
+         if (max < test) {
+            max = test;
+         }
+      }
+      return max;
+   }
+
+   /** Branching ceiling loop. */
+   private static int scalarCeiling(int[] a, int key) {
+      int min = Integer.MAX_VALUE;
+      for (int test : a) {
+         if (test >= key && test < min) {
+            min = test;
+         }
+      }
+      return min;
+   }
+
+   /** Branching floor loop. */
+   private static int scalarFloor(int[] a, int key) {
+      int max = Integer.MIN_VALUE;
+      for (int test : a) {
+         if (test <= key && test > max) {
+            max = test;
+         }
+      }
+      return max;
+   }
+
+   /** Branching two-pass range. */
+   private static int[] scalarRange(int[] a, int low, int high) {
+      int length = 0;
+      for (int test : a) {
+         if (test >= low && test <= high) {
+            length++;
+         }
+      }
+      int[] retArray = new int[length];
+      int i = 0;
+      for (int test : a) {
+         if (test >= low && test <= high) {
+            retArray[i++] = test;
+         }
+      }
+      return retArray;
+   }
+}
@@ -0,0 +1,536 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * SelectorCheck.java
+ * Differential checks for the selectors in this folder. Random arrays,
+ * small and wide in value span and rich in duplicates, are queried
+ * through Selector, SelectorIndex, ParallelSelector, IntOrderStatisticTree,
+ * WindowedSelector, ShardedSelector and MappedSelector, and every answer,
+ * or the IllegalArgumentException thrown instead, is compared with the
+ * original copy-and-sort Selector kept below as the reference. That
+ * Selector never returns Integer.MAX_VALUE as a ceiling or
+ * Integer.MIN_VALUE as a floor, and ParallelSelector keeps this. The
+ * other selectors are documented to return them, and are checked against
+ * a reference that does, on random arrays and on fixed ones where an
+ * extreme is the only qualifying value. Keys that collide in IntSelect's
+ * hash table are checked as well, along with the rank error of
+ * IntQuantileSketch. A seed and a number of rounds can be given on the
+ * command line; for example
+ *
+ *    java SelectorCheck 42 20000
+ *
+ * The first mismatches are printed, and the exit status is 1 if there
+ * were any.
+ *
+ * @author  Will Humphlett (wah0028@auburn.edu)
+ * @version 10/17/2026
+ *
+ */
+public class SelectorCheck {
+
+   /** Mismatches printed before the rest are only counted. */
+   private static final int MAX_REPORTS = 20;
+
+   /** Length at which ParallelSelector is checked above its threshold. */
+   private static final int PARALLEL_LENGTH = ParallelSelector.SEQUENTIAL_THRESHOLD + 1000;
+
+   private static int checks;
+   private static int failures;
+
+   /** Drives execution. */
+   public static void main(String[] args) {
+      long seed = args.length > 0 ? Long.parseLong(args[0]) : 2210;
+      int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+      Random rand = new Random(seed);
+      ForkJoinPool pool = new ForkJoinPool(4);
+      for (int round = 0; round < rounds; round++) {
+         int[] a = randomArray(rand, 1 + rand.nextInt(round % 4 == 0 ? 400 : 40));
+         checkArray(rand, a, "round " + round);
+         if (round % 500 == 0) {
+            checkParallel(rand, randomArray(rand, PARALLEL_LENGTH), pool, "round " + round);
+         }
+      }
+      checkExtremes(pool);
+      pool.shutdown();
+      checkCollidingKeys();
+      checkSketch(rand);
+      System.out.println(checks + " checks, " + failures + " failures");
+      if (failures > 0) {
+         System.exit(1);
+      }
+   }
+
+
+   /**
+    * Returns n random values, drawn from a narrow span, a wide span, or
+    * the full int range. One array in eight also holds Integer.MAX_VALUE
+    * or Integer.MIN_VALUE, where Selector's ceiling and floor part from
+    * the other selectors'.
+    */
+   private static int[] randomArray(Random rand, int n) {
+      int kind = rand.nextInt(3);
+      int span = kind == 0 ? 1 + rand.nextInt(2 * n + 2) : 1 + rand.nextInt(1 << 30);
+      int[] a = new int[n];
+      for (int i = 0; i < n; i++) {
+         a[i] = kind == 2 ? rand.nextInt() : rand.nextInt(span) - span / 2;
+      }
+      if (rand.nextInt(8) == 0) {
+         for (int i = 1 + rand.nextInt(3); i > 0; i--) {
+            a[rand.nextInt(n)] = rand.nextBoolean() ? Integer.MAX_VALUE : Integer.MIN_VALUE;
+         }
+      }
+      return a;
+   }
+
+
+   /**
+    * Queries a through every selector with random ranks and keys.
+    */
+   private static void checkArray(Random rand, int[] a, String where) {
+      int n = a.length;
+      int[] copy = a.clone();
+      SelectorIndex index = new SelectorIndex(a);
+      IntOrderStatisticTree tree = new IntOrderStatisticTree(a);
+      MappedSelector mapped = new MappedSelector(toBuffer(a));
+      // Two sorted shards stand for their concatenation
+      int[] left = Arrays.copyOf(a, n / 2);
+      int[] right = Arrays.copyOfRange(a, n / 2, n);
+      Arrays.sort(left);
+      Arrays.sort(right);
+      int[] joined = new int[n];
+      System.arraycopy(left, 0, joined, 0, left.length);
+      System.arraycopy(right, 0, joined, left.length, right.length);
+      ShardedSelector sharded = new ShardedSelector(left, right);
+      // A window that has already dropped some older values
+      WindowedSelector window = new WindowedSelector(Math.max(1, n / 2));
+      for (int i = rand.nextInt(10); i > 0; i--) {
+         window.push(rand.nextInt());
+      }
+      for (int x : a) {
+         window.push(x);
+      }
+      int[] last = Arrays.copyOfRange(a, n - window.size(), n);
+
+      compare(where + " min", show(() -> refMin(a)), show(() -> Selector.min(a)),
+         show(() -> index.min()), show(() -> tree.min()), show(() -> mapped.min()));
+      compare(where + " max", show(() -> refMax(a)), show(() -> Selector.max(a)),
+         show(() -> index.max()), show(() -> tree.max()), show(() -> mapped.max()));
+      compare(where + " sharded min", show(() -> refMin(joined)), show(() -> sharded.min()));
+      compare(where + " sharded max", show(() -> refMax(joined)), show(() -> sharded.max()));
+      compare(where + " window min", show(() -> refMin(last)), show(() -> window.min()));
+      compare(where + " window max", show(() -> refMax(last)), show(() -> window.max()));
+      for (int q = 0; q < 8; q++) {
+         int k = rand.nextInt(n + 3) - 1;
+         int key = rand.nextBoolean() ? a[rand.nextInt(n)] : rand.nextInt();
+         int other = rand.nextBoolean() ? a[rand.nextInt(n)] : rand.nextInt();
+         int low = Math.min(key, other);
+         int high = Math.max(key, other);
+         compare(where + " kmin " + k, show(() -> refKmin(a, k)),
+            show(() -> Selector.kmin(a, k)), show(() -> index.kmin(k)),
+            show(() -> tree.kmin(k)), show(() -> mapped.kmin(k)));
+         compare(where + " kmax " + k, show(() -> refKmax(a, k)),
+            show(() -> Selector.kmax(a, k)), show(() -> index.kmax(k)),
+            show(() -> tree.kmax(k)), show(() -> mapped.kmax(k)));
+         compare(where + " ceiling " + key, show(() -> refCeiling(a, key)),
+            show(() -> Selector.ceiling(a, key)));
+         compare(where + " exact ceiling " + key, show(() -> exactCeiling(a, key)),
+            show(() -> index.ceiling(key)), show(() -> tree.ceiling(key)),
+            show(() -> mapped.ceiling(key)));
+         compare(where + " floor " + key, show(() -> refFloor(a, key)),
+            show(() -> Selector.floor(a, key)));
+         compare(where + " exact floor " + key, show(() -> exactFloor(a, key)),
+            show(() -> index.floor(key)), show(() -> tree.floor(key)),
+            show(() -> mapped.floor(key)));
+         compare(where + " range " + low + " " + high, show(() -> refRange(a, low, high)),
+            show(() -> Selector.range(a, low, high)),
+            show(() -> Selector.rangeStream(a, low, high).toArray()),
+            show(() -> rangeInto(a, low, high)), show(() -> mappedRange(mapped, low, high)));
+         compare(where + " sorted range", show(() -> sorted(refRange(a, low, high))),
+            show(() -> index.range(low, high)));
+         compare(where + " range count", show(() -> (long) refRange(a, low, high).length),
+            show(() -> tree.rangeCount(low, high)));
+         compare(where + " sharded kmin " + k, show(() -> refKmin(joined, k)),
+            show(() -> sharded.kmin(k)));
+         compare(where + " sharded kmax " + k, show(() -> refKmax(joined, k)),
+            show(() -> sharded.kmax(k)));
+         compare(where + " sharded ceiling", show(() -> exactCeiling(joined, key)),
+            show(() -> sharded.ceiling(key)));
+         compare(where + " sharded floor", show(() -> exactFloor(joined, key)),
+            show(() -> sharded.floor(key)));
+         compare(where + " sharded range", show(() -> refRange(joined, low, high)),
+            show(() -> sharded.range(low, high)));
+         compare(where + " window kmin " + k, show(() -> refKmin(last, k)),
+            show(() -> window.kmin(k)));
+         compare(where + " window kmax " + k, show(() -> refKmax(last, k)),
+            show(() -> window.kmax(k)));
+         compare(where + " window ceiling", show(() -> exactCeiling(last, key)),
+            show(() -> window.ceiling(key)));
+         compare(where + " window floor", show(() -> exactFloor(last, key)),
+            show(() -> window.floor(key)));
+         compare(where + " window range", show(() -> refRange(last, low, high)),
+            show(() -> window.range(low, high)));
+      }
+      int[] ks = new int[1 + rand.nextInt(6)];
+      for (int i = 0; i < ks.length; i++) {
+         ks[i] = 1 + rand.nextInt(n);
+      }
+      compare(where + " kminAll", show(() -> refAll(a, ks, false)),
+         show(() -> Selector.kminAll(a, ks)));
+      compare(where + " kmaxAll", show(() -> refAll(a, ks, true)),
+         show(() -> Selector.kmaxAll(a, ks)));
+      // Deleting half the values leaves the tree answering for the rest
+      List<Integer> rest = new ArrayList<Integer>();
+      for (int x : a) {
+         rest.add(x);
+      }
+      for (int i = 0; i < n / 2; i++) {
+         tree.delete(rest.remove(rand.nextInt(rest.size())));
+      }
+      int[] kept = rest.stream().mapToInt(Integer::intValue).toArray();
+      int k = 1 + rand.nextInt(n);
+      compare(where + " tree after deletes", show(() -> refKmin(kept, k)),
+         show(() -> tree.kmin(k)));
+      compare(where + " array unchanged", show(() -> copy), show(() -> a));
+   }
+
+
+   /**
+    * Checks ParallelSelector on an array long enough to be split.
+    */
+   private static void checkParallel(Random rand, int[] a, ForkJoinPool pool, String where) {
+      int key = a[rand.nextInt(a.length)];
+      int low = Math.min(key, a[0]);
+      int high = Math.max(key, a[0]);
+      compare(where + " parallel min", show(() -> refMin(a)),
+         show(() -> ParallelSelector.min(a)), show(() -> ParallelSelector.min(a, pool)));
+      compare(where + " parallel max", show(() -> refMax(a)),
+         show(() -> ParallelSelector.max(a)), show(() -> ParallelSelector.max(a, pool)));
+      compare(where + " parallel ceiling", show(() -> refCeiling(a, key)),
+         show(() -> ParallelSelector.ceiling(a, key, pool)));
+      compare(where + " parallel floor", show(() -> refFloor(a, key)),
+         show(() -> ParallelSelector.floor(a, key, pool)));
+      compare(where + " parallel range", show(() -> refRange(a, low, high)),
+         show(() -> ParallelSelector.range(a, low, high, pool)));
+      // A null pool is refused whether or not the array would be split
+      for (int[] b : new int[][] {Arrays.copyOf(a, 10), a}) {
+         compare(where + " null pool " + b.length, "IAE",
+            show(() -> ParallelSelector.min(b, null)), show(() -> ParallelSelector.max(b, null)),
+            show(() -> ParallelSelector.range(b, low, high, null)),
+            show(() -> ParallelSelector.ceiling(b, key, null)),
+            show(() -> ParallelSelector.floor(b, key, null)));
+      }
+   }
+
+
+   /**
+    * Checks ceiling and floor where Integer.MAX_VALUE or Integer.MIN_VALUE
+    * is the answer. Selector and ParallelSelector throw, as the original
+    * did; every other selector returns the value, as its javadoc says.
+    * Windows are filled after older values have been dropped.
+    */
+   private static void checkExtremes(ForkJoinPool pool) {
+      int max = Integer.MAX_VALUE;
+      int min = Integer.MIN_VALUE;
+      int[][] arrays = {{max}, {min}, {min, max}, {5, max, -5, min, 5}, {0, max, max, min}};
+      int[] keys = {min, min + 1, -5, 0, 6, max - 1, max};
+      for (int[] a : arrays) {
+         SelectorIndex index = new SelectorIndex(a);
+         IntOrderStatisticTree tree = new IntOrderStatisticTree(a);
+         MappedSelector mapped = new MappedSelector(toBuffer(a));
+         int[] left = Arrays.copyOf(a, a.length / 2);
+         int[] right = Arrays.copyOfRange(a, a.length / 2, a.length);
+         Arrays.sort(left);
+         Arrays.sort(right);
+         ShardedSelector sharded = new ShardedSelector(left, right);
+         WindowedSelector window = new WindowedSelector(a.length);
+         for (int x : new int[] {max, min, 1}) {
+            window.push(x);
+         }
+         for (int x : a) {
+            window.push(x);
+         }
+         for (int key : keys) {
+            String where = "extreme " + Arrays.toString(a) + " key " + key;
+            compare(where + " ceiling", show(() -> refCeiling(a, key)),
+               show(() -> Selector.ceiling(a, key)),
+               show(() -> ParallelSelector.ceiling(a, key, pool)));
+            compare(where + " floor", show(() -> refFloor(a, key)),
+               show(() -> Selector.floor(a, key)),
+               show(() -> ParallelSelector.floor(a, key, pool)));
+            compare(where + " exact ceiling", show(() -> exactCeiling(a, key)),
+               show(() -> index.ceiling(key)), show(() -> tree.ceiling(key)),
+               show(() -> mapped.ceiling(key)), show(() -> sharded.ceiling(key)),
+               show(() -> window.ceiling(key)));
+            compare(where + " exact floor", show(() -> exactFloor(a, key)),
+               show(() -> index.floor(key)), show(() -> tree.floor(key)),
+               show(() -> mapped.floor(key)), show(() -> sharded.floor(key)),
+               show(() -> window.floor(key)));
+         }
+      }
+      // The references above could share a mistake; spell out one case
+      int[] top = {max};
+      compare("extreme ceiling of max", "IAE", show(() -> Selector.ceiling(top, max)),
+         show(() -> ParallelSelector.ceiling(top, max, pool)));
+      compare("extreme exact ceiling of max", String.valueOf(max),
+         show(() -> new SelectorIndex(top).ceiling(max)),
+         show(() -> new IntOrderStatisticTree(top).ceiling(max)),
+         show(() -> new MappedSelector(toBuffer(top)).ceiling(max)),
+         show(() -> new ShardedSelector(top).ceiling(max)));
+      int[] bottom = {min};
+      compare("extreme floor of min", "IAE", show(() -> Selector.floor(bottom, min)),
+         show(() -> ParallelSelector.floor(bottom, min, pool)));
+      compare("extreme exact floor of min", String.valueOf(min),
+         show(() -> new SelectorIndex(bottom).floor(min)),
+         show(() -> new IntOrderStatisticTree(bottom).floor(min)),
+         show(() -> new MappedSelector(toBuffer(bottom)).floor(min)),
+         show(() -> new ShardedSelector(bottom).floor(min)));
+      // ParallelSelector keeps Selector's sentinels once it splits the work
+      int[] big = new int[PARALLEL_LENGTH];
+      big[PARALLEL_LENGTH / 3] = max;
+      big[2 * PARALLEL_LENGTH / 3] = min;
+      compare("extreme parallel ceiling", "IAE",
+         show(() -> ParallelSelector.ceiling(big, 1, pool)));
+      compare("extreme parallel floor", "IAE",
+         show(() -> ParallelSelector.floor(big, -1, pool)));
+   }
+
+
+   /**
+    * Checks kmin on keys that all hash to one slot of IntSelect's table:
+    * multiples of the inverse of its multiplier.
+    */
+   private static void checkCollidingKeys() {
+      int inverse = 1;
+      for (int i = 0; i < 5; i++) {
+         inverse *= 2 - 0x9E3779B9 * inverse;
+      }
+      int[] a = new int[1 << 17];
+      for (int i = 0; i < a.length; i++) {
+         a[i] = (i + 1) * inverse;
+      }
+      long start = System.nanoTime();
+      compare("colliding keys", show(() -> refKmin(a, a.length / 2)),
+         show(() -> Selector.kmin(a, a.length / 2)));
+      long millis = (System.nanoTime() - start) / 1000000;
+      compare("colliding keys time under 2 s", show(() -> true), show(() -> millis < 2000));
+   }
+
+
+   /**
+    * Checks that sketch ranks, including after merging a sketch into
+    * itself, stay within a few times the published error bound.
+    */
+   private static void checkSketch(Random rand) {
+      int[] a = randomArray(rand, 200000);
+      IntQuantileSketch sketch = new IntQuantileSketch();
+      sketch.update(a);
+      sketch.merge(sketch);
+      int[] doubled = new int[2 * a.length];
+      System.arraycopy(a, 0, doubled, 0, a.length);
+      System.arraycopy(a, 0, doubled, a.length, a.length);
+      Arrays.sort(doubled);
+      double bound = 3 * sketch.normalizedRankError() * doubled.length;
+      boolean within = sketch.size() == doubled.length
+         && sketch.min() == doubled[0] && sketch.max() == doubled[doubled.length - 1];
+      for (double q = 0.05; q < 1; q += 0.05) {
+         int estimate = sketch.quantile(q);
+         int lo = lowerBound(doubled, estimate);
+         int hi = lowerBound(doubled, estimate + 1L);
+         double target = q * doubled.length;
+         within &= target >= lo - bound && target <= hi + bound;
+      }
+      boolean result = within;
+      compare("sketch self-merge rank error", show(() -> true), show(() -> result));
+   }
+
+
+   private static int lowerBound(int[] sorted, long value) {
+      int lo = 0;
+      int hi = sorted.length;
+      while (lo < hi) {
+         int mid = (lo + hi) >>> 1;
+         if (sorted[mid] < value) {
+            lo = mid + 1;
+         }
+         else {
+            hi = mid;
+         }
+      }
+      return lo;
+   }
+
+
+   private static int[] rangeInto(int[] a, int low, int high) {
+      int[] dest = new int[a.length + 2];
+      int count = Selector.range(a, low, high, dest, 2);
+      return Arrays.copyOfRange(dest, 2, 2 + count);
+   }
+
+
+   private static int[] mappedRange(MappedSelector mapped, int low, int high) {
+      List<Integer> found = new ArrayList<Integer>();
+      mapped.range(low, high, found::add);
+      return found.stream().mapToInt(Integer::intValue).toArray();
+   }
+
+
+   private static ByteBuffer toBuffer(int[] a) {
+      ByteBuffer buffer = ByteBuffer.allocate(4 * a.length);
+      buffer.asIntBuffer().put(a);
+      return buffer;
+   }
+
+
+   private static int[] sorted(int[] a) {
+      int[] b = a.clone();
+      Arrays.sort(b);
+      return b;
+   }
+
+
+   /**
+    * Records one check: every answer must equal the first.
+    */
+   private static void compare(String what, String expected, String... answers) {
+      checks++;
+      for (int i = 0; i < answers.length; i++) {
+         if (!expected.equals(answers[i])) {
+            if (failures++ < MAX_REPORTS) {
+               System.out.println(what + ": answer " + i + " was " + answers[i]
+                  + ", expected " + expected);
+            }
+         }
+      }
+   }
+
+
+   /**
+    * Returns a printable answer, or "IAE" if IllegalArgumentException was
+    * thrown.
+    */
+   private static String show(Supplier<Object> answer) {
+      try {
+         Object value = answer.get();
+         return value instanceof int[] ? Arrays.toString((int[]) value) : String.valueOf(value);
+      }
+      catch (IllegalArgumentException e) {
+         return "IAE";
+      }
+   }
+
+
+   // The original Selector, which sorts a copy for every rank query.
+
+   private static int refMin(int[] a) {
+      if (a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      return sorted(a)[0];
+   }
+
+
+   private static int refMax(int[] a) {
+      if (a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      return sorted(a)[a.length - 1];
+   }
+
+
+   private static int refKmin(int[] a, int k) {
+      int[] d = refDistinct(a);
+      if (k < 1 || k > d.length) {
+         throw new IllegalArgumentException();
+      }
+      return d[k - 1];
+   }
+
+
+   private static int refKmax(int[] a, int k) {
+      int[] d = refDistinct(a);
+      if (k < 1 || k > d.length) {
+         throw new IllegalArgumentException();
+      }
+      return d[d.length - k];
+   }
+
+
+   private static int[] refAll(int[] a, int[] ks, boolean max) {
+      int[] out = new int[ks.length];
+      for (int i = 0; i < ks.length; i++) {
+         out[i] = max ? refKmax(a, ks[i]) : refKmin(a, ks[i]);
+      }
+      return out;
+   }
+
+
+   private static int[] refDistinct(int[] a) {
+      if (a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      return Arrays.stream(a).distinct().sorted().toArray();
+   }
+
+
+   private static int[] refRange(int[] a, int low, int high) {
+      if (a.length == 0) {
+         throw new IllegalArgumentException();
+      }
+      return Arrays.stream(a).filter(x -> x >= low && x <= high).toArray();
+   }
+
+
+   /** As the original, Integer.MAX_VALUE itself is never a ceiling. */
+   private static int refCeiling(int[] a, int key) {
+      int min = Integer.MAX_VALUE;
+      for (int x : refRange(a, key, Integer.MAX_VALUE)) {
+         min = Math.min(min, x);
+      }
+      if (min == Integer.MAX_VALUE) {
+         throw new IllegalArgumentException();
+      }
+      return min;
+   }
+
+
+   /** As the original, Integer.MIN_VALUE itself is never a floor. */
+   private static int refFloor(int[] a, int key) {
+      int max = Integer.MIN_VALUE;
+      for (int x : refRange(a, Integer.MIN_VALUE, key)) {
+         max = Math.max(max, x);
+      }
+      if (max == Integer.MIN_VALUE) {
+         throw new IllegalArgumentException();
+      }
+      return max;
+   }
+
+
+   // The ceiling and floor the other selectors return, extremes included.
+
+   private static int exactCeiling(int[] a, int key) {
+      for (int x : refDistinct(a)) {
+         if (x >= key) {
+            return x;
+         }
+      }
+      throw new IllegalArgumentException();
+   }
+
+
+   private static int exactFloor(int[] a, int key) {
+      int[] d = refDistinct(a);
+      for (int i = d.length - 1; i >= 0; i--) {
+         if (d[i] <= key) {
+            return d[i];
+         }
+      }
+      throw new IllegalArgumentException();
+   }
+}
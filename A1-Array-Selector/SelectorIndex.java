@@ -0,0 +1,222 @@
+import java.util.Arrays;
+
+/**
+ * SelectorIndex.java
+ * A prebuilt index over one array of ints for answering many selection
+ * queries against the same data. The index is built once in O(n log n),
+ * or in O(n + span) by counting when the values span no more slots than
+ * there are values, and then answers kmin and kmax in O(1), floor and
+ * ceiling in O(log n), and range in O(log n + m) where m is the number of
+ * values returned. For a single query the static methods in Selector
+ * remain the cheaper choice.
+ *
+ * @author  Will Humphlett (wah0028@auburn.edu)
+ * @version 10/17/2026
+ *
+ */
+public final class SelectorIndex {
+
+   /** all values of the source array in ascending order. */
+   private final int[] sorted;
+
+   /** each distinct value in ascending order. */
+   private final int[] distinct;
+
+   /** start of the run of distinct[i] in sorted; runs[d] is sorted.length. */
+   private final int[] runs;
+
+   /**
+    * Builds an index over the values in a. This constructor throws
+    * IllegalArgumentException if a is null or has zero length. The array a
+    * is not changed by this constructor, and later changes to a are not
+    * seen by the index.
+    */
+   public SelectorIndex(int[] a) {
+      if (a == null || a.length == 0) {
+         throw new IllegalArgumentException("Array must not be empty.");
+      }
+      int min = IntKernels.min(a, 0, a.length);
+      int max = IntKernels.max(a, 0, a.length);
+      if (IntSelect.countable(min, max, a.length)) {
+         sorted = countingSort(a, min, max);
+      }
+      else {
+         sorted = Arrays.copyOf(a, a.length);
+         Arrays.sort(sorted);
+      }
+      // Record the start of each run of equal values
+      int[] starts = new int[sorted.length + 1];
+      int d = 0;
+      for (int i = 0; i < sorted.length; i++) {
+         if (i == 0 || sorted[i] != sorted[i - 1]) {
+            starts[d++] = i;
+         }
+      }
+      starts[d] = sorted.length;
+      runs = Arrays.copyOf(starts, d + 1);
+      distinct = new int[d];
+      for (int i = 0; i < d; i++) {
+         distinct[i] = sorted[runs[i]];
+      }
+   }
+
+
+   /**
+    * Returns the values of a in ascending order, placed by counting the
+    * occurrences of each value in [min..max].
+    */
+   private static int[] countingSort(int[] a, int min, int max) {
+      int[] counts = new int[max - min + 1];
+      for (int x : a) {
+         counts[x - min]++;
+      }
+      int[] out = new int[a.length];
+      int j = 0;
+      for (int v = 0; v < counts.length; v++) {
+         for (int c = counts[v]; c > 0; c--) {
+            out[j++] = min + v;
+         }
+      }
+      return out;
+   }
+
+
+   /**
+    * Returns the number of values indexed, including duplicates.
+    */
+   public int size() {
+      return sorted.length;
+   }
+
+
+   /**
+    * Returns the number of distinct values indexed.
+    */
+   public int distinctCount() {
+      return distinct.length;
+   }
+
+
+   /**
+    * Returns the number of times value occurs in the indexed array.
+    */
+   public int count(int value) {
+      int i = Arrays.binarySearch(distinct, value);
+      return i < 0 ? 0 : runs[i + 1] - runs[i];
+   }
+
+
+   /**
+    * Selects the minimum value in the indexed array.
+    */
+   public int min() {
+      return distinct[0];
+   }
+
+
+   /**
+    * Selects the maximum value in the indexed array.
+    */
+   public int max() {
+      return distinct[distinct.length - 1];
+   }
+
+
+   /**
+    * Selects the kth minimum value as defined by Selector.kmin. This method
+    * throws IllegalArgumentException if there is no kth minimum value.
+    */
+   public int kmin(int k) {
+      if (k < 1 || k > distinct.length) {
+         throw new IllegalArgumentException(k + "th min does not exist.");
+      }
+      return distinct[k - 1];
+   }
+
+
+   /**
+    * Selects the kth maximum value as defined by Selector.kmax. This method
+    * throws IllegalArgumentException if there is no kth maximum value.
+    */
+   public int kmax(int k) {
+      if (k < 1 || k > distinct.length) {
+         throw new IllegalArgumentException(k + "th max does not exist.");
+      }
+      return distinct[distinct.length - k];
+   }
+
+
+   /**
+    * Returns an array containing all the indexed values in the range
+    * [low..high], including duplicate values. Unlike Selector.range, the
+    * values are returned in ascending order rather than in their original
+    * order. If there are no qualifying values, this method returns a
+    * zero-length array.
+    */
+   public int[] range(int low, int high) {
+      if (low > high) {
+         return new int[0];
+      }
+      int i = lowerBound(low);
+      int j = lowerBound(high);
+      if (j < distinct.length && distinct[j] == high) {
+         j++;
+      }
+      return Arrays.copyOfRange(sorted, runs[i], runs[j]);
+   }
+
+
+   /**
+    * Returns the smallest indexed value that is greater than or equal to
+    * key. This method throws IllegalArgumentException if there is no
+    * qualifying value. This differs from Selector.ceiling in one case:
+    * Selector.ceiling throws when the ceiling is Integer.MAX_VALUE, which
+    * it uses to mean no value was found, but this method returns it.
+    */
+   public int ceiling(int key) {
+      int i = lowerBound(key);
+      if (i == distinct.length) {
+         throw new IllegalArgumentException("No acceptable i value");
+      }
+      return distinct[i];
+   }
+
+
+   /**
+    * Returns the largest indexed value that is less than or equal to key.
+    * This method throws IllegalArgumentException if there is no qualifying
+    * value. This differs from Selector.floor in one case: Selector.floor
+    * throws when the floor is Integer.MIN_VALUE, which it uses to mean no
+    * value was found, but this method returns it.
+    */
+   public int floor(int key) {
+      int i = lowerBound(key);
+      if (i < distinct.length && distinct[i] == key) {
+         return key;
+      }
+      if (i == 0) {
+         throw new IllegalArgumentException("No acceptable i value");
+      }
+      return distinct[i - 1];
+   }
+
+
+   /**
+    * Returns the index of the first distinct value that is greater than or
+    * equal to key, or distinct.length if there is none.
+    */
+   private int lowerBound(int key) {
+      int lo = 0;
+      int hi = distinct.length;
+      while (lo < hi) {
+         int mid = (lo + hi) >>> 1;
+         if (distinct[mid] < key) {
+            lo = mid + 1;
+         }
+         else {
+            hi = mid;
+         }
+      }
+      return lo;
+   }
+}
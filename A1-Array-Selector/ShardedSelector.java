@@ -0,0 +1,389 @@
+import java.util.Arrays;
+
+/**
+ * ShardedSelector.java
+ * Selection methods over data held as several int arrays, each already
+ * sorted in ascending order. Queries treat the shards as one array, their
+ * concatenation in order, and return what Selector would return for it,
+ * but the shards are never concatenated or re-sorted. The one difference
+ * is noted on ceiling and floor.
+ *
+ * min, max, floor and ceiling binary search each shard. range copies the
+ * matching run of each shard. kmin and kmax for small k run a heap-based
+ * k-way merge from the bottom or top of the shards, skipping duplicates.
+ * For larger k a sparse directory records every STEP-th distinct value;
+ * it is built by one merge on first use. A query then binary searches
+ * every shard for the nearest directory value and merges forward fewer
+ * than STEP distinct values.
+ *
+ * The shards are not copied; they must not be changed while this
+ * selector is in use.
+ *
+ * @author  Will Humphlett (wah0028@auburn.edu)
+ * @version 10/17/2026
+ *
+ */
+public final class ShardedSelector {
+
+   /** Distinct values between directory entries, and the small-k cutoff. */
+   private static final int STEP = 64;
+
+   /** the sorted shards. */
+   private final int[][] shards;
+
+   /** every STEP-th distinct value, starting with the smallest, or null. */
+   private int[] directory;
+
+   /** number of distinct values over all shards, once known. */
+   private int distinctCount = -1;
+
+   /**
+    * Builds a selector over the given sorted shards. This constructor
+    * throws IllegalArgumentException if shards is null or holds a null
+    * shard, if every shard is empty, or if any shard is not sorted in
+    * ascending order.
+    */
+   public ShardedSelector(int[]... shards) {
+      if (shards == null) {
+         throw new IllegalArgumentException("Shards must not be null.");
+      }
+      long size = 0;
+      for (int[] shard : shards) {
+         if (shard == null) {
+            throw new IllegalArgumentException("Shards must not be null.");
+         }
+         for (int i = 1; i < shard.length; i++) {
+            if (shard[i - 1] > shard[i]) {
+               throw new IllegalArgumentException("Shards must be sorted.");
+            }
+         }
+         size += shard.length;
+      }
+      if (size == 0) {
+         throw new IllegalArgumentException("Array must not be empty.");
+      }
+      this.shards = shards.clone();
+   }
+
+
+   /**
+    * Selects the minimum value over all shards.
+    */
+   public int min() {
+      int min = Integer.MAX_VALUE;
+      for (int[] shard : shards) {
+         if (shard.length > 0) {
+            min = Math.min(min, shard[0]);
+         }
+      }
+      return min;
+   }
+
+
+   /**
+    * Selects the maximum value over all shards.
+    */
+   public int max() {
+      int max = Integer.MIN_VALUE;
+      for (int[] shard : shards) {
+         if (shard.length > 0) {
+            max = Math.max(max, shard[shard.length - 1]);
+         }
+      }
+      return max;
+   }
+
+
+   /**
+    * Returns the number of distinct values over all shards. The first call
+    * merges every shard once to build the rank directory.
+    */
+   public int distinctCount() {
+      buildDirectory();
+      return distinctCount;
+   }
+
+
+   /**
+    * Selects the kth minimum value as Selector.kmin does. This method
+    * throws IllegalArgumentException if there is no kth minimum value.
+    */
+   public int kmin(int k) {
+      if (k < 1) {
+         throw new IllegalArgumentException(k + "th min does not exist.");
+      }
+      if (k <= STEP) {
+         return walk(new Merge(shards, true), k, "min");
+      }
+      buildDirectory();
+      if (k > distinctCount) {
+         throw new IllegalArgumentException(k + "th min does not exist.");
+      }
+      // Resume the merge at the directory entry just below rank k
+      int entry = directory[(k - 1) / STEP];
+      int[] from = new int[shards.length];
+      for (int s = 0; s < shards.length; s++) {
+         from[s] = lowerBound(shards[s], entry);
+      }
+      return walk(new Merge(shards, from), (k - 1) % STEP + 1, "min");
+   }
+
+
+   /**
+    * Selects the kth maximum value as Selector.kmax does. This method
+    * throws IllegalArgumentException if there is no kth maximum value.
+    */
+   public int kmax(int k) {
+      if (k < 1) {
+         throw new IllegalArgumentException(k + "th max does not exist.");
+      }
+      if (k <= STEP) {
+         return walk(new Merge(shards, false), k, "max");
+      }
+      buildDirectory();
+      if (k > distinctCount) {
+         throw new IllegalArgumentException(k + "th max does not exist.");
+      }
+      return kmin(distinctCount - k + 1);
+   }
+
+
+   /**
+    * Returns all the values in the range [low..high], including duplicate
+    * values, in the order Selector.range would return them for the
+    * concatenated shards: each shard's matches in turn, in ascending order.
+    * If there are no qualifying values, this method returns a zero-length
+    * array.
+    */
+   public int[] range(int low, int high) {
+      if (low > high) {
+         return new int[0];
+      }
+      int[] from = new int[shards.length];
+      int[] to = new int[shards.length];
+      int length = 0;
+      for (int s = 0; s < shards.length; s++) {
+         from[s] = lowerBound(shards[s], low);
+         to[s] = high == Integer.MAX_VALUE ? shards[s].length
+            : lowerBound(shards[s], high + 1);
+         length += to[s] - from[s];
+      }
+      int[] retArray = new int[length];
+      int j = 0;
+      for (int s = 0; s < shards.length; s++) {
+         System.arraycopy(shards[s], from[s], retArray, j, to[s] - from[s]);
+         j += to[s] - from[s];
+      }
+      return retArray;
+   }
+
+
+   /**
+    * Returns the smallest value that is greater than or equal to key. This
+    * method throws IllegalArgumentException if there is no qualifying
+    * value. Where Selector.ceiling throws because the ceiling is
+    * Integer.MAX_VALUE, its sentinel for no value, this method returns
+    * Integer.MAX_VALUE.
+    */
+   public int ceiling(int key) {
+      boolean found = false;
+      int ceiling = Integer.MAX_VALUE;
+      for (int[] shard : shards) {
+         int i = lowerBound(shard, key);
+         if (i < shard.length) {
+            found = true;
+            ceiling = Math.min(ceiling, shard[i]);
+         }
+      }
+      if (!found) {
+         throw new IllegalArgumentException("No acceptable i value");
+      }
+      return ceiling;
+   }
+
+
+   /**
+    * Returns the largest value that is less than or equal to key. This
+    * method throws IllegalArgumentException if there is no qualifying
+    * value. Where Selector.floor throws because the floor is
+    * Integer.MIN_VALUE, its sentinel for no value, this method returns
+    * Integer.MIN_VALUE.
+    */
+   public int floor(int key) {
+      boolean found = false;
+      int floor = Integer.MIN_VALUE;
+      for (int[] shard : shards) {
+         int i = key == Integer.MAX_VALUE ? shard.length : lowerBound(shard, key + 1);
+         if (i > 0) {
+            found = true;
+            floor = Math.max(floor, shard[i - 1]);
+         }
+      }
+      if (!found) {
+         throw new IllegalArgumentException("No acceptable i value");
+      }
+      return floor;
+   }
+
+
+   /**
+    * Advances merge by steps distinct values and returns the last one.
+    */
+   private static int walk(Merge merge, int steps, String kind) {
+      int value = 0;
+      for (int i = 0; i < steps; i++) {
+         if (!merge.hasNext()) {
+            throw new IllegalArgumentException(steps + "th " + kind + " does not exist.");
+         }
+         value = merge.nextDistinct();
+      }
+      return value;
+   }
+
+
+   /**
+    * Builds the rank directory and distinct count with one full merge, if
+    * that has not been done yet.
+    */
+   private void buildDirectory() {
+      if (directory != null) {
+         return;
+      }
+      int[] entries = new int[16];
+      int size = 0;
+      int count = 0;
+      Merge merge = new Merge(shards, true);
+      while (merge.hasNext()) {
+         int value = merge.nextDistinct();
+         if (count % STEP == 0) {
+            if (size == entries.length) {
+               entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size++] = value;
+         }
+         count++;
+      }
+      distinctCount = count;
+      directory = Arrays.copyOf(entries, size);
+   }
+
+
+   /**
+    * Returns the index of the first value in a that is greater than or
+    * equal to key, or a.length if there is none.
+    */
+   private static int lowerBound(int[] a, int key) {
+      int lo = 0;
+      int hi = a.length;
+      while (lo < hi) {
+         int mid = (lo + hi) >>> 1;
+         if (a[mid] < key) {
+            lo = mid + 1;
+         }
+         else {
+            hi = mid;
+         }
+      }
+      return lo;
+   }
+
+
+   /**
+    * A k-way merge over the shards that yields each distinct value once,
+    * in ascending or descending order. A binary heap holds the shards that
+    * still have values, keyed by each shard's current value.
+    */
+   private static final class Merge {
+      private final int[][] shards;
+      private final boolean ascending;
+      private final int[] pos;
+      private final int[] heap;
+      private int size;
+
+      /** Merges every shard from its start, or from its end when descending. */
+      Merge(int[][] shards, boolean ascending) {
+         this.shards = shards;
+         this.ascending = ascending;
+         pos = new int[shards.length];
+         heap = new int[shards.length];
+         for (int s = 0; s < shards.length; s++) {
+            pos[s] = ascending ? 0 : shards[s].length - 1;
+            push(s);
+         }
+      }
+
+      /** Merges upward starting at the given position in each shard. */
+      Merge(int[][] shards, int[] from) {
+         this.shards = shards;
+         this.ascending = true;
+         pos = from;
+         heap = new int[shards.length];
+         for (int s = 0; s < shards.length; s++) {
+            push(s);
+         }
+      }
+
+      boolean hasNext() {
+         return size > 0;
+      }
+
+      /** Returns the next distinct value and moves every shard past it. */
+      int nextDistinct() {
+         int value = current(heap[0]);
+         while (size > 0 && current(heap[0]) == value) {
+            int s = heap[0];
+            pos[s] += ascending ? 1 : -1;
+            if (pos[s] >= 0 && pos[s] < shards[s].length) {
+               siftDown(0);
+            }
+            else {
+               heap[0] = heap[--size];
+               siftDown(0);
+            }
+         }
+         return value;
+      }
+
+      private int current(int s) {
+         return shards[s][pos[s]];
+      }
+
+      /** Returns true if shard s should come out of the heap before t. */
+      private boolean before(int s, int t) {
+         return ascending ? current(s) < current(t) : current(s) > current(t);
+      }
+
+      private void push(int s) {
+         if (pos[s] < 0 || pos[s] >= shards[s].length) {
+            return;
+         }
+         int i = size++;
+         heap[i] = s;
+         while (i > 0 && before(heap[i], heap[(i - 1) / 2])) {
+            int parent = (i - 1) / 2;
+            heap[i] = heap[parent];
+            heap[parent] = s;
+            i = parent;
+         }
+      }
+
+      private void siftDown(int i) {
+         while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+               return;
+            }
+            if (child + 1 < size && before(heap[child + 1], heap[child])) {
+               child++;
+            }
+            if (!before(heap[child], heap[i])) {
+               return;
+            }
+            int tmp = heap[i];
+            heap[i] = heap[child];
+            heap[child] = tmp;
+            i = child;
+         }
+      }
+   }
+}
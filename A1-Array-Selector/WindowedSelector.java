@@ -0,0 +1,223 @@
+/**
+ * WindowedSelector.java
+ * Selection methods over the most recent W values of a stream of ints.
+ * Each call to push adds a value and, once the window is full, drops the
+ * oldest one. min and max are kept by monotonic deques in amortized O(1)
+ * per push; kmin, kmax, floor and ceiling are answered by an
+ * IntOrderStatisticTree over the window in O(log W). Every query returns
+ * what the matching Selector method would return for an array holding the
+ * current window, and no such array is ever copied. The exception is at
+ * the ends of the int range: Selector.ceiling never returns
+ * Integer.MAX_VALUE and Selector.floor never returns Integer.MIN_VALUE,
+ * throwing instead, but ceiling and floor here return them when they
+ * qualify.
+ *
+ * @author  Will Humphlett (wah0028@auburn.edu)
+ * @version 10/17/2026
+ *
+ */
+public final class WindowedSelector {
+
+   /** the window, as a ring; value number s lives at s % capacity. */
+   private final int[] ring;
+
+   /** number of values pushed so far. */
+   private long pushed;
+
+   /** value numbers whose values increase from front to back. */
+   private final long[] minDeque;
+   private int minHead;
+   private int minSize;
+
+   /** value numbers whose values decrease from front to back. */
+   private final long[] maxDeque;
+   private int maxHead;
+   private int maxSize;
+
+   /** the window's values, for rank, floor and ceiling queries. */
+   private final IntOrderStatisticTree tree = new IntOrderStatisticTree();
+
+   /**
+    * Builds an empty window that holds at most capacity values. This
+    * constructor throws IllegalArgumentException if capacity is less than 1.
+    */
+   public WindowedSelector(int capacity) {
+      if (capacity < 1) {
+         throw new IllegalArgumentException("Capacity must be positive.");
+      }
+      ring = new int[capacity];
+      minDeque = new long[capacity];
+      maxDeque = new long[capacity];
+   }
+
+
+   /**
+    * Adds value as the newest value in the window, dropping the oldest
+    * value if the window is full.
+    */
+   public void push(int value) {
+      int w = ring.length;
+      long seq = pushed;
+      if (seq >= w) {
+         // Evict the value falling out of the window
+         long old = seq - w;
+         tree.delete(ring[(int) (old % w)]);
+         if (minSize > 0 && minDeque[minHead] == old) {
+            minHead = (minHead + 1) % w;
+            minSize--;
+         }
+         if (maxSize > 0 && maxDeque[maxHead] == old) {
+            maxHead = (maxHead + 1) % w;
+            maxSize--;
+         }
+      }
+      ring[(int) (seq % w)] = value;
+      tree.insert(value);
+      // Values that can never again be the minimum or maximum leave the back
+      while (minSize > 0 && valueAt(minDeque[(minHead + minSize - 1) % w]) >= value) {
+         minSize--;
+      }
+      minDeque[(minHead + minSize++) % w] = seq;
+      while (maxSize > 0 && valueAt(maxDeque[(maxHead + maxSize - 1) % w]) <= value) {
+         maxSize--;
+      }
+      maxDeque[(maxHead + maxSize++) % w] = seq;
+      pushed++;
+   }
+
+
+   /**
+    * Returns the number of values currently in the window.
+    */
+   public int size() {
+      return (int) Math.min(pushed, ring.length);
+   }
+
+
+   /**
+    * Returns the largest number of values the window holds.
+    */
+   public int capacity() {
+      return ring.length;
+   }
+
+
+   /**
+    * Returns the values in the window, oldest first.
+    */
+   public int[] toArray() {
+      int size = size();
+      int[] retArray = new int[size];
+      long first = pushed - size;
+      for (int i = 0; i < size; i++) {
+         retArray[i] = valueAt(first + i);
+      }
+      return retArray;
+   }
+
+
+   /**
+    * Selects the minimum value in the window. This method throws
+    * IllegalArgumentException if the window is empty.
+    */
+   public int min() {
+      checkNotEmpty();
+      return valueAt(minDeque[minHead]);
+   }
+
+
+   /**
+    * Selects the maximum value in the window. This method throws
+    * IllegalArgumentException if the window is empty.
+    */
+   public int max() {
+      checkNotEmpty();
+      return valueAt(maxDeque[maxHead]);
+   }
+
+
+   /**
+    * Selects the kth minimum value in the window as Selector.kmin does.
+    * This method throws IllegalArgumentException if the window is empty or
+    * there is no kth minimum value.
+    */
+   public int kmin(int k) {
+      checkNotEmpty();
+      return tree.kmin(k);
+   }
+
+
+   /**
+    * Selects the kth maximum value in the window as Selector.kmax does.
+    * This method throws IllegalArgumentException if the window is empty or
+    * there is no kth maximum value.
+    */
+   public int kmax(int k) {
+      checkNotEmpty();
+      return tree.kmax(k);
+   }
+
+
+   /**
+    * Returns the values in the window in the range [low..high], oldest
+    * first, as Selector.range does. This method takes O(W) time and throws
+    * IllegalArgumentException if the window is empty.
+    */
+   public int[] range(int low, int high) {
+      checkNotEmpty();
+      int[] retArray = new int[(int) tree.rangeCount(low, high)];
+      int size = size();
+      long first = pushed - size;
+      int j = 0;
+      for (int i = 0; i < size; i++) {
+         int test = valueAt(first + i);
+         if (test >= low && test <= high) {
+            retArray[j++] = test;
+         }
+      }
+      return retArray;
+   }
+
+
+   /**
+    * Returns the smallest value in the window that is greater than or
+    * equal to key. This method throws IllegalArgumentException if the
+    * window is empty or there is no qualifying value. Unlike
+    * Selector.ceiling, it returns Integer.MAX_VALUE when that is the
+    * ceiling.
+    */
+   public int ceiling(int key) {
+      checkNotEmpty();
+      return tree.ceiling(key);
+   }
+
+
+   /**
+    * Returns the largest value in the window that is less than or equal to
+    * key. This method throws IllegalArgumentException if the window is
+    * empty or there is no qualifying value. Unlike Selector.floor, it
+    * returns Integer.MIN_VALUE when that is the floor.
+    */
+   public int floor(int key) {
+      checkNotEmpty();
+      return tree.floor(key);
+   }
+
+
+   /**
+    * Returns the value with value number seq, which must be in the window.
+    */
+   private int valueAt(long seq) {
+      return ring[(int) (seq % ring.length)];
+   }
+
+
+   /**
+    * Throws IllegalArgumentException if the window is empty.
+    */
+   private void checkNotEmpty() {
+      if (pushed == 0) {
+         throw new IllegalArgumentException("Array must not be empty.");
+      }
+   }
+}
@@ -0,0 +1,524 @@
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CachingSelector.java
+ * A cache of sorted snapshots for collections that are queried many times
+ * between rare changes. view returns a Snapshot of a collection under a
+ * comparator: a stable-sorted copy together with the positions where
+ * distinct values start and end. On a Snapshot, kmin and kmax take O(1)
+ * time. ceiling, floor, min and max take O(log n), and range takes
+ * O(log n + r log r) for r matches. Every answer is the one the matching
+ * Selector method gives for the collection as it was when the snapshot
+ * was taken.
+ *
+ * Snapshots are cached per (collection, comparator) pair, by identity. A
+ * snapshot is taken again when its version changes. The version is either
+ * supplied by the caller, who must change it whenever the collection
+ * changes, or kept by a Tracked wrapper that counts its own changes.
+ * Least recently used snapshots are evicted once the cache holds more
+ * than maxEntries snapshots or more than maxBytes estimated bytes. The
+ * estimate covers the snapshot's own arrays, not the elements. The cache
+ * holds its collections strongly until they are evicted.
+ *
+ * @author  Will Humphlett (wah0028@auburn.edu)
+ * @version 10/17/2026
+ *
+ */
+public final class CachingSelector {
+
+   /** Estimated snapshot bytes per element: a reference and three ints. */
+   private static final long BYTES_PER_ELEMENT = 24;
+
+   /** Estimated fixed bytes per snapshot. */
+   private static final long BYTES_PER_SNAPSHOT = 128;
+
+   /** bounds on the cache. */
+   private final int maxEntries;
+   private final long maxBytes;
+
+   /** cached snapshots, least recently used first. */
+   private final LinkedHashMap<Key, Snapshot<?>> cache =
+      new LinkedHashMap<Key, Snapshot<?>>(16, 0.75f, true);
+
+   /** estimated bytes of all cached snapshots. */
+   private long bytes;
+
+   /**
+    * Builds an empty cache bounded by maxEntries snapshots and maxBytes
+    * estimated bytes. This constructor throws IllegalArgumentException if
+    * either bound is less than 1.
+    */
+   public CachingSelector(int maxEntries, long maxBytes) {
+      if (maxEntries < 1 || maxBytes < 1) {
+         throw new IllegalArgumentException("Cache bounds must be positive");
+      }
+      this.maxEntries = maxEntries;
+      this.maxBytes = maxBytes;
+   }
+
+
+   /**
+    * Wraps coll so that every change made through the wrapper is counted,
+    * and a snapshot of it can tell when it is out of date. Changes made to
+    * coll directly, not through the wrapper, are not seen.
+    */
+   public static <T> Tracked<T> track(Collection<T> coll) {
+      if (coll == null) {
+         throw new IllegalArgumentException("Arguments must not be null");
+      }
+      return new Tracked<T>(coll);
+   }
+
+
+   /**
+    * Returns a snapshot of a tracked collection ordered by comp, taken now
+    * or reused from the cache if the collection has not changed since.
+    * This method throws IllegalArgumentException if either argument is
+    * null.
+    */
+   public <T> Snapshot<T> view(Tracked<T> coll, Comparator<T> comp) {
+      if (coll == null || comp == null) {
+         throw new IllegalArgumentException("Arguments must not be null");
+      }
+      return view(coll, comp, coll.version());
+   }
+
+
+   /**
+    * Returns a snapshot of coll ordered by comp, taken now or reused from
+    * the cache if version matches the version of the cached snapshot. The
+    * caller must pass a new version whenever coll has changed. This method
+    * throws IllegalArgumentException if either coll or comp is null.
+    */
+   @SuppressWarnings("unchecked")
+   public synchronized <T> Snapshot<T> view(Collection<T> coll, Comparator<T> comp,
+                                            long version) {
+      if (coll == null || comp == null) {
+         throw new IllegalArgumentException("Arguments must not be null");
+      }
+      Key key = new Key(coll, comp);
+      Snapshot<?> cached = cache.get(key);
+      if (cached != null && cached.version == version) {
+         return (Snapshot<T>) cached;
+      }
+      if (cached != null) {
+         cache.remove(key);
+         bytes -= cached.bytes();
+      }
+      Snapshot<T> snapshot = new Snapshot<T>(coll, comp, version);
+      cache.put(key, snapshot);
+      bytes += snapshot.bytes();
+      // Evict least recently used; a snapshot too big to keep is still returned
+      Iterator<Snapshot<?>> it = cache.values().iterator();
+      while (it.hasNext() && (cache.size() > maxEntries || bytes > maxBytes)) {
+         bytes -= it.next().bytes();
+         it.remove();
+      }
+      return snapshot;
+   }
+
+
+   /**
+    * Drops every snapshot of coll, under any comparator.
+    */
+   public synchronized void invalidate(Collection<?> coll) {
+      Iterator<Map.Entry<Key, Snapshot<?>>> it = cache.entrySet().iterator();
+      while (it.hasNext()) {
+         Map.Entry<Key, Snapshot<?>> entry = it.next();
+         if (entry.getKey().coll == coll) {
+            bytes -= entry.getValue().bytes();
+            it.remove();
+         }
+      }
+   }
+
+
+   /**
+    * Returns the number of cached snapshots.
+    */
+   public synchronized int size() {
+      return cache.size();
+   }
+
+
+   /**
+    * Returns the estimated bytes held by cached snapshots.
+    */
+   public synchronized long bytes() {
+      return bytes;
+   }
+
+
+   /**
+    * A sorted copy of a collection, fixed when it is taken. Its methods
+    * answer as the Selector methods of the same names would have answered
+    * for the collection at that time, and throw the same exceptions.
+    */
+   public static final class Snapshot<T> {
+      private final Comparator<T> comp;
+      private final long version;
+
+      /** the elements in stable sorted order. */
+      private final Object[] sorted;
+
+      /** the encounter position of each sorted element. */
+      private final int[] origin;
+
+      /** where kmin counts a new distinct value, ascending. */
+      private final int[] starts;
+
+      /** where kmax counts a new distinct value, ascending. */
+      private final int[] ends;
+
+      Snapshot(Collection<T> coll, Comparator<T> comp, long version) {
+         this.comp = comp;
+         this.version = version;
+         sorted = coll.toArray();
+         int n = sorted.length;
+         origin = new int[n];
+         for (int i = 0; i < n; i++) {
+            origin[i] = i;
+         }
+         // A stable sort keeps equal elements in encounter order
+         sort(sorted, origin, 0, n, sorted.clone(), origin.clone());
+         int[] runs = new int[n];
+         int count = 0;
+         for (int i = 0; i < n; i++) {
+            if (i == 0 || !sorted[i].equals(sorted[i - 1])) {
+               runs[count++] = i;
+            }
+         }
+         starts = Arrays.copyOf(runs, count);
+         count = 0;
+         for (int i = 0; i < n; i++) {
+            if (i == n - 1 || !sorted[i].equals(sorted[i + 1])) {
+               runs[count++] = i;
+            }
+         }
+         ends = Arrays.copyOf(runs, count);
+      }
+
+
+      /**
+       * Returns the number of elements in the snapshot.
+       */
+      public int size() {
+         return sorted.length;
+      }
+
+
+      /**
+       * Returns the number of distinct values kmin can select.
+       */
+      public int distinctCount() {
+         return starts.length;
+      }
+
+
+      /** Selector.min, in O(1). */
+      public T min() {
+         checkNotEmpty();
+         return element(0);
+      }
+
+
+      /** Selector.max, in O(log n). */
+      public T max() {
+         checkNotEmpty();
+         return element(lowerBound(sorted[sorted.length - 1]));
+      }
+
+
+      /** Selector.kmin, in O(1). */
+      public T kmin(int k) {
+         checkNotEmpty();
+         if (k < 1 || k > sorted.length) {
+            throw new NoSuchElementException("Illegal k value");
+         }
+         if (k > starts.length) {
+            throw new NoSuchElementException(k + "th min does not exist.");
+         }
+         return element(starts[k - 1]);
+      }
+
+
+      /** Selector.kmax, in O(1). */
+      public T kmax(int k) {
+         checkNotEmpty();
+         if (k < 1 || k > sorted.length) {
+            throw new NoSuchElementException("Illegal k value");
+         }
+         if (k > ends.length) {
+            throw new NoSuchElementException(k + "th min does not exist.");
+         }
+         return element(ends[ends.length - k]);
+      }
+
+
+      /**
+       * Selector.range, in O(log n + r log r) for r matches. The matches
+       * are found by binary search and put back in encounter order.
+       */
+      public Collection<T> range(T low, T high) {
+         checkNotEmpty();
+         int lo = lowerBound(low);
+         int hi = upperBound(high);
+         if (lo >= hi) {
+            throw new NoSuchElementException("No such values fit arguments");
+         }
+         long[] packed = new long[hi - lo];
+         for (int i = lo; i < hi; i++) {
+            packed[i - lo] = ((long) origin[i] << 32) | i;
+         }
+         Arrays.sort(packed);
+         ArrayList<T> range = new ArrayList<T>(packed.length);
+         for (long p : packed) {
+            range.add(element((int) p));
+         }
+         return range;
+      }
+
+
+      /**
+       * Selector.ceiling, in O(log n). Of several equal ceilings the last
+       * in encounter order is returned, as Selector does.
+       */
+      public T ceiling(T key) {
+         checkNotEmpty();
+         int i = lowerBound(key);
+         if (i == sorted.length) {
+            throw new NoSuchElementException("Ceiling does not exist");
+         }
+         return element(upperBound(element(i)) - 1);
+      }
+
+
+      /**
+       * Selector.floor, in O(log n). Of several equal floors the last in
+       * encounter order is returned, as Selector does.
+       */
+      public T floor(T key) {
+         checkNotEmpty();
+         int j = upperBound(key) - 1;
+         if (j < 0) {
+            throw new NoSuchElementException("Floor does not exist");
+         }
+         return element(j);
+      }
+
+
+      /**
+       * Returns the index of the first element not less than key.
+       */
+      private int lowerBound(Object key) {
+         int lo = 0;
+         int hi = sorted.length;
+         while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(sorted[mid], key) < 0) {
+               lo = mid + 1;
+            }
+            else {
+               hi = mid;
+            }
+         }
+         return lo;
+      }
+
+
+      /**
+       * Returns the index of the first element greater than key.
+       */
+      private int upperBound(Object key) {
+         int lo = 0;
+         int hi = sorted.length;
+         while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(sorted[mid], key) <= 0) {
+               lo = mid + 1;
+            }
+            else {
+               hi = mid;
+            }
+         }
+         return lo;
+      }
+
+
+      private long bytes() {
+         return BYTES_PER_SNAPSHOT + BYTES_PER_ELEMENT * sorted.length;
+      }
+
+
+      private void checkNotEmpty() {
+         if (sorted.length == 0) {
+            throw new NoSuchElementException("Collection must not be empty");
+         }
+      }
+
+
+      @SuppressWarnings("unchecked")
+      private T element(int i) {
+         return (T) sorted[i];
+      }
+
+
+      /**
+       * Stably sorts a[lo..hi), moving each origin entry with its element.
+       * This is a merge sort from the copies b and from, which hold the
+       * same entries as a and at on entry, so no index is boxed.
+       */
+      private void sort(Object[] a, int[] at, int lo, int hi, Object[] b, int[] from) {
+         if (hi - lo <= CollectionSelect.INSERTION_CUTOFF) {
+            for (int i = lo + 1; i < hi; i++) {
+               Object x = a[i];
+               int p = at[i];
+               int j = i - 1;
+               while (j >= lo && compare(a[j], x) > 0) {
+                  a[j + 1] = a[j];
+                  at[j + 1] = at[j];
+                  j--;
+               }
+               a[j + 1] = x;
+               at[j + 1] = p;
+            }
+            return;
+         }
+         int mid = (lo + hi) >>> 1;
+         // Sort each half of the copies, using a as their scratch space
+         sort(b, from, lo, mid, a, at);
+         sort(b, from, mid, hi, a, at);
+         int i = lo;
+         int j = mid;
+         for (int w = lo; w < hi; w++) {
+            // Ties go to the left half, which keeps the sort stable
+            if (j >= hi || i < mid && compare(b[i], b[j]) <= 0) {
+               a[w] = b[i];
+               at[w] = from[i++];
+            }
+            else {
+               a[w] = b[j];
+               at[w] = from[j++];
+            }
+         }
+      }
+
+
+      @SuppressWarnings("unchecked")
+      private int compare(Object x, Object y) {
+         return comp.compare((T) x, (T) y);
+      }
+   }
+
+
+   /**
+    * A collection that counts the changes made through it. Bulk operations
+    * inherited from AbstractCollection go through add and the iterator's
+    * remove, so they are counted as well. The count is atomic, so changes
+    * made from several threads are never lost, provided the underlying
+    * collection is itself safe for them.
+    */
+   public static final class Tracked<T> extends AbstractCollection<T> {
+      private final Collection<T> coll;
+      private final AtomicLong version = new AtomicLong();
+
+      Tracked(Collection<T> coll) {
+         this.coll = coll;
+      }
+
+      /**
+       * Returns a number that changes whenever this collection changes.
+       */
+      public long version() {
+         return version.get();
+      }
+
+      @Override
+      public int size() {
+         return coll.size();
+      }
+
+      @Override
+      public boolean contains(Object o) {
+         return coll.contains(o);
+      }
+
+      @Override
+      public Object[] toArray() {
+         return coll.toArray();
+      }
+
+      @Override
+      public boolean add(T e) {
+         boolean changed = coll.add(e);
+         if (changed) {
+            version.incrementAndGet();
+         }
+         return changed;
+      }
+
+      @Override
+      public boolean remove(Object o) {
+         boolean changed = coll.remove(o);
+         if (changed) {
+            version.incrementAndGet();
+         }
+         return changed;
+      }
+
+      @Override
+      public Iterator<T> iterator() {
+         Iterator<T> it = coll.iterator();
+         return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+               return it.hasNext();
+            }
+
+            @Override
+            public T next() {
+               return it.next();
+            }
+
+            @Override
+            public void remove() {
+               it.remove();
+               version.incrementAndGet();
+            }
+         };
+      }
+   }
+
+
+   /**
+    * Identifies a collection and a comparator by identity.
+    */
+   private static final class Key {
+      final Collection<?> coll;
+      final Comparator<?> comp;
+
+      Key(Collection<?> coll, Comparator<?> comp) {
+         this.coll = coll;
+         this.comp = comp;
+      }
+
+      @Override
+      public boolean equals(Object o) {
+         return o instanceof Key && ((Key) o).coll == coll && ((Key) o).comp == comp;
+      }
+
+      @Override
+      public int hashCode() {
+         return 31 * System.identityHashCode(coll) + System.identityHashCode(comp);
+      }
+   }
+}
@@ -0,0 +1,338 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * CollectionSelect.java
+ * Selection engine behind the kth minimum and kth maximum methods in
+ * Selector. The elements are partitioned three ways around a pivot
+ * (less, comparator-equal, greater) and only the parts that can still
+ * hold the answer are partitioned further. Partitions are stable, so
+ * every group of comparator-equal elements keeps its encounter order.
+ * Distinct values can therefore be counted exactly as a stable sort
+ * followed by an equals scan would count them, without sorting anything
+ * past the answer.
+ *
+ * Counting k distinct values needs every element below the answer in
+ * order, so the cost is O(n + m log m), where m is the number of
+ * elements ranked ahead of the answer. kmin walks up from the bottom and
+ * kmax walks down from the top, so both stay close to linear for ranks
+ * near their own end.
+ *
+ * When values are distinct by comparator rather than by equals, each
+ * equal group left by a partition is one value and is counted in O(1),
+ * and a sorted subrange is counted by comparing each element with its
+ * neighbour once. A group never spans two subranges, so no element is
+ * compared with one from another subrange. equals is not called.
+ *
+ * @author  Will Humphlett (wah0028@auburn.edu)
+ * @version 10/17/2026
+ *
+ */
+final class CollectionSelect<T> {
+
+   /** Subranges at or below this length are finished by insertion sort. */
+   static final int INSERTION_CUTOFF = 16;
+
+   /** Marks that no element has been counted yet. */
+   private static final Object NONE = new Object();
+
+   /** the elements being selected from; rearranged in place. */
+   private final Object[] a;
+
+   /** the total order on the elements. */
+   private final Comparator<? super T> comp;
+
+   /** the distinct rank being looked for. */
+   private final int k;
+
+   /** true if distinct means comp.compare != 0 rather than !equals. */
+   private final boolean byComparator;
+
+   /** scratch space for stable partitioning, allocated on first use. */
+   private Object[] buf;
+
+   /** distinct values counted so far, and the last element counted. */
+   private int count;
+   private Object prev = NONE;
+
+   /** the element found, once count reaches k. */
+   private Object result;
+
+   /** every element counted as a new distinct value, or null. */
+   private List<Object> starts;
+
+   /** bounds of the equal group left by the last partition. */
+   int lt;
+   int gt;
+
+   /** partitions allowed before a subrange is simply sorted. */
+   private int budget;
+
+   private CollectionSelect(Object[] a, int k, Comparator<? super T> comp,
+                            boolean byComparator) {
+      this.a = a;
+      this.k = k;
+      this.comp = comp;
+      this.byComparator = byComparator;
+      budget = 2 * (32 - Integer.numberOfLeadingZeros(a.length));
+   }
+
+   /**
+    * Builds a partitioner over a for callers that drive partition and sort
+    * themselves.
+    */
+   CollectionSelect(Object[] a, Comparator<? super T> comp) {
+      this(a, 0, comp, false);
+   }
+
+
+   /**
+    * Returns true if a has at least k distinct values in the sense of
+    * Selector.kmin, and if so stores the kth minimum in found[0]. The
+    * array a is rearranged by this method.
+    */
+   static <T> boolean kmin(Object[] a, int k, Comparator<? super T> comp, Object[] found) {
+      return kmin(a, k, comp, false, found);
+   }
+
+
+   /**
+    * As kmin(a, k, comp, found), but when byComparator, values are
+    * distinct by comp as in Selector.kminByComparator.
+    */
+   static <T> boolean kmin(Object[] a, int k, Comparator<? super T> comp,
+                              boolean byComparator, Object[] found) {
+      CollectionSelect<T> select = new CollectionSelect<T>(a, k, comp, byComparator);
+      if (select.ascend(0, a.length)) {
+         found[0] = select.result;
+         return true;
+      }
+      return false;
+   }
+
+
+   /**
+    * Returns true if a has at least k distinct values in the sense of
+    * Selector.kmax, and if so stores the kth maximum in found[0]. The
+    * array a is rearranged by this method.
+    */
+   static <T> boolean kmax(Object[] a, int k, Comparator<? super T> comp, Object[] found) {
+      return kmax(a, k, comp, false, found);
+   }
+
+
+   /**
+    * As kmax(a, k, comp, found), but when byComparator, values are
+    * distinct by comp as in Selector.kmaxByComparator.
+    */
+   static <T> boolean kmax(Object[] a, int k, Comparator<? super T> comp,
+                              boolean byComparator, Object[] found) {
+      CollectionSelect<T> select = new CollectionSelect<T>(a, k, comp, byComparator);
+      if (select.descend(0, a.length)) {
+         found[0] = select.result;
+         return true;
+      }
+      return false;
+   }
+
+
+   /**
+    * Returns the answers Selector.kmin gives for ranks 1, 2, ... up to k,
+    * in that order; fewer if a has fewer than k distinct values. The array
+    * a is rearranged by this method.
+    */
+   @SuppressWarnings("unchecked")
+   static <T> List<T> prefix(Object[] a, int k, Comparator<? super T> comp) {
+      CollectionSelect<T> select = new CollectionSelect<T>(a, k, comp, false);
+      select.starts = new ArrayList<Object>(Math.min(k, a.length));
+      select.ascend(0, a.length);
+      return (List<T>) (List<?>) select.starts;
+   }
+
+
+   /**
+    * Counts a[lo..hi) in ascending order; returns true once the kth
+    * distinct value is found.
+    */
+   private boolean ascend(int lo, int hi) {
+      while (true) {
+         if (hi - lo <= INSERTION_CUTOFF || budget <= 0) {
+            sort(lo, hi);
+            for (int i = lo; i < hi; i++) {
+               if (byComparator ? (i == lo || compare(a[i - 1], a[i]) != 0) && found(a[i])
+                     : visit(a[i])) {
+                  return true;
+               }
+            }
+            return false;
+         }
+         budget--;
+         partition(lo, hi);
+         int less = lt;
+         int greater = gt;
+         if (ascend(lo, less)) {
+            return true;
+         }
+         if (byComparator) {
+            // The first of the group in encounter order, as a stable sort puts it
+            if (found(a[less])) {
+               return true;
+            }
+         }
+         else {
+            for (int i = less; i < greater; i++) {
+               if (visit(a[i])) {
+                  return true;
+               }
+            }
+         }
+         lo = greater;
+      }
+   }
+
+
+   /**
+    * Counts a[lo..hi) in descending order; returns true once the kth
+    * distinct value is found.
+    */
+   private boolean descend(int lo, int hi) {
+      while (true) {
+         if (hi - lo <= INSERTION_CUTOFF || budget <= 0) {
+            sort(lo, hi);
+            for (int i = hi - 1; i >= lo; i--) {
+               if (byComparator ? (i == hi - 1 || compare(a[i], a[i + 1]) != 0) && found(a[i])
+                     : visit(a[i])) {
+                  return true;
+               }
+            }
+            return false;
+         }
+         budget--;
+         partition(lo, hi);
+         int less = lt;
+         int greater = gt;
+         if (descend(greater, hi)) {
+            return true;
+         }
+         if (byComparator) {
+            // The last of the group in encounter order, as the kmax scan meets it
+            if (found(a[greater - 1])) {
+               return true;
+            }
+         }
+         else {
+            for (int i = greater - 1; i >= less; i--) {
+               if (visit(a[i])) {
+                  return true;
+               }
+            }
+         }
+         hi = less;
+      }
+   }
+
+
+   /**
+    * Counts e, the next element in sorted order. As in the sorted scans of
+    * Selector.kmin and Selector.kmax, e starts a new distinct value unless
+    * it equals the element just before it.
+    */
+   private boolean visit(Object e) {
+      boolean done = (prev == NONE || !e.equals(prev)) && found(e);
+      prev = e;
+      return done;
+   }
+
+
+   /**
+    * Counts e as a new distinct value; returns true if it is the kth.
+    */
+   private boolean found(Object e) {
+      if (starts != null) {
+         starts.add(e);
+      }
+      if (++count == k) {
+         result = e;
+         return true;
+      }
+      return false;
+   }
+
+
+   /**
+    * Stably partitions a[lo..hi) around the median of its first, middle
+    * and last elements into [lo, lt) less, [lt, gt) equal and [gt, hi)
+    * greater.
+    */
+   void partition(int lo, int hi) {
+      Object pivot = medianOfThree(a[lo], a[(lo + hi) >>> 1], a[hi - 1]);
+      if (buf == null) {
+         buf = new Object[a.length];
+      }
+      // Less stays in a; equal fills buf upward from lo; greater fills it down from hi
+      int w = lo;
+      int e = lo;
+      int g = hi;
+      for (int i = lo; i < hi; i++) {
+         Object x = a[i];
+         int c = compare(x, pivot);
+         if (c < 0) {
+            a[w++] = x;
+         }
+         else if (c == 0) {
+            buf[e++] = x;
+         }
+         else {
+            buf[--g] = x;
+         }
+      }
+      lt = w;
+      System.arraycopy(buf, lo, a, w, e - lo);
+      gt = w + (e - lo);
+      int j = gt;
+      for (int i = hi - 1; i >= g; i--) {
+         a[j++] = buf[i];
+      }
+      Arrays.fill(buf, lo, hi, null);
+   }
+
+
+   /**
+    * Returns the median of three elements.
+    */
+   private Object medianOfThree(Object x, Object y, Object z) {
+      if (compare(x, y) < 0) {
+         return compare(y, z) < 0 ? y : (compare(x, z) < 0 ? z : x);
+      }
+      return compare(x, z) < 0 ? x : (compare(y, z) < 0 ? z : y);
+   }
+
+
+   /**
+    * Stably sorts a[lo..hi).
+    */
+   @SuppressWarnings("unchecked")
+   void sort(int lo, int hi) {
+      if (hi - lo > INSERTION_CUTOFF) {
+         Arrays.sort((T[]) a, lo, hi, comp);
+         return;
+      }
+      for (int i = lo + 1; i < hi; i++) {
+         Object x = a[i];
+         int j = i - 1;
+         while (j >= lo && compare(a[j], x) > 0) {
+            a[j + 1] = a[j];
+            j--;
+         }
+         a[j + 1] = x;
+      }
+   }
+
+
+   @SuppressWarnings("unchecked")
+   private int compare(Object x, Object y) {
+      return comp.compare((T) x, (T) y);
+   }
+}
@@ -0,0 +1,421 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * ExternalSelector.java
+ * kmin, kmax and range over an Iterable that may be too large to hold in
+ * memory, such as records read from disk. At most budget elements are held
+ * at a time. kmin and kmax read the input in chunks of budget elements,
+ * stably sort each chunk, and spill it as a run to a temporary file
+ * through a caller-supplied Serializer. The runs are then merged, with
+ * ties going to the earlier run, which reproduces a stable sort of the
+ * whole input. Distinct values are counted along the merge exactly as
+ * the sorted scans in Selector count them. When there are more than
+ * MAX_FAN_IN runs, groups of neighbouring runs are merged first. Input
+ * that fits in one chunk is selected in memory without touching disk.
+ * range needs no sorting: it streams matches to a sink as they are read.
+ *
+ * The source is iterated once per call, and temporary files are deleted
+ * before each call returns.
+ *
+ * @author  Will Humphlett (wah0028@auburn.edu)
+ * @version 10/17/2026
+ *
+ */
+public final class ExternalSelector<T> {
+
+   /** Most runs merged at once; each open run holds one read buffer. */
+   public static final int MAX_FAN_IN = 128;
+
+   /** Bytes buffered per open run file. */
+   private static final int BUFFER_SIZE = 1 << 16;
+
+   /**
+    * Writes elements to and reads them back from a run file. read must
+    * return an element equal, by comp and by equals, to the one written.
+    */
+   public interface Serializer<T> {
+      void write(T value, DataOutput out) throws IOException;
+
+      T read(DataInput in) throws IOException;
+   }
+
+   private final Comparator<T> comp;
+   private final Serializer<T> serializer;
+   private final int budget;
+   private final File directory;
+
+   /**
+    * Builds a selector ordered by comp that holds at most budget elements
+    * in memory and spills to the default temporary directory. This
+    * constructor throws IllegalArgumentException if comp or serializer is
+    * null or budget is less than 2.
+    */
+   public ExternalSelector(Comparator<T> comp, Serializer<T> serializer, int budget) {
+      this(comp, serializer, budget, null);
+   }
+
+   /**
+    * Builds a selector ordered by comp that holds at most budget elements
+    * in memory and spills to directory, or to the default temporary
+    * directory if directory is null. This constructor throws
+    * IllegalArgumentException if comp or serializer is null or budget is
+    * less than 2.
+    */
+   public ExternalSelector(Comparator<T> comp, Serializer<T> serializer, int budget,
+                           File directory) {
+      if (comp == null || serializer == null) {
+         throw new IllegalArgumentException("Arguments must not be null");
+      }
+      if (budget < 2) {
+         throw new IllegalArgumentException("Budget must be at least 2");
+      }
+      this.comp = comp;
+      this.serializer = serializer;
+      this.budget = budget;
+      this.directory = directory;
+   }
+
+
+   /**
+    * Selects the kth minimum value of source as Selector.kmin would for a
+    * Collection holding the same elements in the same order, and throws
+    * the same exceptions. This method throws IllegalArgumentException if
+    * source is null.
+    */
+   public T kmin(Iterable<T> source, int k) throws IOException {
+      return select(source, k, false);
+   }
+
+
+   /**
+    * Selects the kth maximum value of source as Selector.kmax would for a
+    * Collection holding the same elements in the same order, and throws
+    * the same exceptions. This method throws IllegalArgumentException if
+    * source is null.
+    */
+   public T kmax(Iterable<T> source, int k) throws IOException {
+      return select(source, k, true);
+   }
+
+
+   /**
+    * Passes every value of source in the range [low..high] to sink, in
+    * source order, including duplicate values, and returns how many were
+    * passed. These are the values Selector.range would return. This method
+    * throws IllegalArgumentException if source or sink is null and
+    * NoSuchElementException if source is empty.
+    */
+   public long range(Iterable<T> source, T low, T high, Consumer<? super T> sink) {
+      if (source == null || sink == null) {
+         throw new IllegalArgumentException("Arguments must not be null");
+      }
+      long n = 0;
+      long count = 0;
+      for (T aux : source) {
+         n++;
+         if (comp.compare(aux, low) >= 0 && comp.compare(aux, high) <= 0) {
+            sink.accept(aux);
+            count++;
+         }
+      }
+      if (n == 0) {
+         throw new NoSuchElementException("Collection must not be empty");
+      }
+      return count;
+   }
+
+
+   /**
+    * Selects the kth minimum, or the kth maximum when fromTop. Runs are
+    * written in the order the Selector scan visits them: ascending, or
+    * descending with equal elements in reverse encounter order.
+    */
+   @SuppressWarnings("unchecked")
+   private T select(Iterable<T> source, int k, boolean fromTop) throws IOException {
+      if (source == null) {
+         throw new IllegalArgumentException("Arguments must not be null");
+      }
+      List<Run> runs = new ArrayList<Run>();
+      try {
+         Object[] chunk = new Object[Math.min(budget, 1024)];
+         int size = 0;
+         long n = 0;
+         for (T x : source) {
+            if (size == budget) {
+               runs.add(spill(chunk, size, fromTop));
+               size = 0;
+            }
+            if (size == chunk.length) {
+               chunk = Arrays.copyOf(chunk, (int) Math.min(budget, 2L * size));
+            }
+            chunk[size++] = x;
+            n++;
+         }
+         if (n == 0) {
+            throw new NoSuchElementException("Collection must not be empty");
+         }
+         if (k < 1 || k > n) {
+            throw new NoSuchElementException("Illegal k value");
+         }
+         if (runs.isEmpty()) {
+            // Everything fit in one chunk
+            Object[] found = new Object[1];
+            Object[] a = Arrays.copyOf(chunk, size);
+            boolean ok = fromTop ? CollectionSelect.kmax(a, k, comp, found)
+               : CollectionSelect.kmin(a, k, comp, found);
+            if (!ok) {
+               throw new NoSuchElementException(k + "th min does not exist.");
+            }
+            return (T) found[0];
+         }
+         runs.add(spill(chunk, size, fromTop));
+         chunk = null;
+         while (runs.size() > MAX_FAN_IN) {
+            runs = mergePass(runs, fromTop);
+         }
+         // Count distinct values along the merge as the sorted scan does
+         try (Merge merge = new Merge(runs, fromTop)) {
+            int count = 0;
+            boolean first = true;
+            T prev = null;
+            while (merge.hasNext()) {
+               T e = merge.next();
+               if (first || !e.equals(prev)) {
+                  if (++count == k) {
+                     return e;
+                  }
+               }
+               prev = e;
+               first = false;
+            }
+         }
+         throw new NoSuchElementException(k + "th min does not exist.");
+      }
+      finally {
+         for (Run run : runs) {
+            run.file.delete();
+         }
+      }
+   }
+
+
+   /**
+    * Stably sorts chunk[0..size) and writes it as a run, ascending or, when
+    * descending, reversed. The chunk's references are cleared.
+    */
+   @SuppressWarnings("unchecked")
+   private Run spill(Object[] chunk, int size, boolean descending) throws IOException {
+      Arrays.sort((T[]) chunk, 0, size, comp);
+      Run run = newRun();
+      try (DataOutputStream out = open(run)) {
+         for (int i = 0; i < size; i++) {
+            serializer.write((T) chunk[descending ? size - 1 - i : i], out);
+         }
+      }
+      catch (IOException | RuntimeException e) {
+         run.file.delete();
+         throw e;
+      }
+      run.size = size;
+      Arrays.fill(chunk, 0, size, null);
+      return run;
+   }
+
+
+   /**
+    * Merges each group of MAX_FAN_IN neighbouring runs into one run, which
+    * keeps ties in run order, and deletes the merged inputs.
+    */
+   private List<Run> mergePass(List<Run> runs, boolean descending) throws IOException {
+      List<Run> merged = new ArrayList<Run>();
+      try {
+         for (int g = 0; g < runs.size(); g += MAX_FAN_IN) {
+            List<Run> group = runs.subList(g, Math.min(g + MAX_FAN_IN, runs.size()));
+            Run run = newRun();
+            merged.add(run);
+            try (Merge merge = new Merge(group, descending);
+                 DataOutputStream out = open(run)) {
+               while (merge.hasNext()) {
+                  serializer.write(merge.next(), out);
+                  run.size++;
+               }
+            }
+         }
+      }
+      catch (IOException | RuntimeException e) {
+         for (Run run : merged) {
+            run.file.delete();
+         }
+         throw e;
+      }
+      for (Run run : runs) {
+         run.file.delete();
+      }
+      return merged;
+   }
+
+
+   private Run newRun() throws IOException {
+      return new Run(File.createTempFile("select", ".run", directory));
+   }
+
+
+   private static DataOutputStream open(Run run) throws IOException {
+      return new DataOutputStream(new BufferedOutputStream(
+         new FileOutputStream(run.file), BUFFER_SIZE));
+   }
+
+
+   /** A sorted run in a temporary file. */
+   private static final class Run {
+      final File file;
+      long size;
+
+      Run(File file) {
+         this.file = file;
+      }
+   }
+
+
+   /**
+    * A k-way merge of runs through a binary heap of run indices. The heap
+    * orders runs by their current element, ascending or descending; of
+    * equal elements, the one from the earlier run comes first when
+    * ascending and the one from the later run when descending, as in the
+    * stable sorted order the Selector scans walk.
+    */
+   private final class Merge implements Closeable {
+      private final DataInputStream[] in;
+      private final long[] remaining;
+      private final Object[] head;
+      private final int[] heap;
+      private final boolean descending;
+      private int size;
+
+      Merge(List<Run> runs, boolean descending) throws IOException {
+         int count = runs.size();
+         this.descending = descending;
+         in = new DataInputStream[count];
+         remaining = new long[count];
+         head = new Object[count];
+         heap = new int[count];
+         try {
+            for (int r = 0; r < count; r++) {
+               in[r] = new DataInputStream(new BufferedInputStream(
+                  new FileInputStream(runs.get(r).file), BUFFER_SIZE));
+               remaining[r] = runs.get(r).size;
+               if (advance(r)) {
+                  push(r);
+               }
+            }
+         }
+         catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+         }
+      }
+
+      boolean hasNext() {
+         return size > 0;
+      }
+
+      @SuppressWarnings("unchecked")
+      T next() throws IOException {
+         int r = heap[0];
+         T value = (T) head[r];
+         if (advance(r)) {
+            siftDown(0);
+         }
+         else {
+            heap[0] = heap[--size];
+            siftDown(0);
+         }
+         return value;
+      }
+
+      /** Reads the next element of run r into head; false if r is done. */
+      private boolean advance(int r) throws IOException {
+         if (remaining[r] == 0) {
+            head[r] = null;
+            return false;
+         }
+         remaining[r]--;
+         head[r] = serializer.read(in[r]);
+         return true;
+      }
+
+      /** Returns true if run r's element comes out before run s's. */
+      @SuppressWarnings("unchecked")
+      private boolean before(int r, int s) {
+         int c = comp.compare((T) head[r], (T) head[s]);
+         if (c == 0) {
+            return descending ? r > s : r < s;
+         }
+         return descending ? c > 0 : c < 0;
+      }
+
+      private void push(int r) {
+         int i = size++;
+         heap[i] = r;
+         while (i > 0 && before(heap[i], heap[(i - 1) / 2])) {
+            int parent = (i - 1) / 2;
+            heap[i] = heap[parent];
+            heap[parent] = r;
+            i = parent;
+         }
+      }
+
+      private void siftDown(int i) {
+         while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+               return;
+            }
+            if (child + 1 < size && before(heap[child + 1], heap[child])) {
+               child++;
+            }
+            if (!before(heap[child], heap[i])) {
+               return;
+            }
+            int tmp = heap[i];
+            heap[i] = heap[child];
+            heap[child] = tmp;
+            i = child;
+         }
+      }
+
+      @Override
+      public void close() throws IOException {
+         IOException failure = null;
+         for (DataInputStream stream : in) {
+            if (stream != null) {
+               try {
+                  stream.close();
+               }
+               catch (IOException e) {
+                  failure = e;
+               }
+            }
+         }
+         if (failure != null) {
+            throw failure;
+         }
+      }
+   }
+}
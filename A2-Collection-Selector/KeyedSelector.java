@@ -0,0 +1,336 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * KeyedSelector.java
+ * Selection methods on Collections ordered by a primitive key. Each
+ * method returns exactly what the matching Selector method returns with
+ * Comparator.comparingInt, comparingLong or comparingDouble on the same
+ * key, and throws the same exceptions. The difference is that the key
+ * function is called exactly once per element, and elements are then
+ * ordered by primitive comparisons only. That matters when the key is
+ * costly to derive (parsed timestamps, computed scores), because a
+ * comparing comparator derives both keys on every compare.
+ *
+ * Every key is turned into a long that orders the same way: int and long
+ * keys as they are, and double keys by their bits with the negative ones
+ * flipped, which orders them as Double.compare does. Distinct values are
+ * still counted with equals on the elements, as Selector does. The
+ * methods have one name per key type because an implicitly typed lambda
+ * would be ambiguous between overloads.
+ *
+ * @author  Will Humphlett (wah0028@auburn.edu)
+ * @version 10/17/2026
+ *
+ */
+public final class KeyedSelector {
+
+   /**
+    * Can't instantiate this class.
+    */
+   private KeyedSelector() { }
+
+
+   /** Selector.min ordered by an int key. */
+   public static <T> T minByInt(Collection<T> coll, ToIntFunction<? super T> key) {
+      return min(coll, intKey(key));
+   }
+
+   /** Selector.min ordered by a long key. */
+   public static <T> T minByLong(Collection<T> coll, ToLongFunction<? super T> key) {
+      return min(coll, key);
+   }
+
+   /** Selector.min ordered by a double key. */
+   public static <T> T minByDouble(Collection<T> coll, ToDoubleFunction<? super T> key) {
+      return min(coll, doubleKey(key));
+   }
+
+
+   /** Selector.max ordered by an int key. */
+   public static <T> T maxByInt(Collection<T> coll, ToIntFunction<? super T> key) {
+      return max(coll, intKey(key));
+   }
+
+   /** Selector.max ordered by a long key. */
+   public static <T> T maxByLong(Collection<T> coll, ToLongFunction<? super T> key) {
+      return max(coll, key);
+   }
+
+   /** Selector.max ordered by a double key. */
+   public static <T> T maxByDouble(Collection<T> coll, ToDoubleFunction<? super T> key) {
+      return max(coll, doubleKey(key));
+   }
+
+
+   /** Selector.kmin ordered by an int key. */
+   public static <T> T kminByInt(Collection<T> coll, int k, ToIntFunction<? super T> key) {
+      return kth(coll, k, intKey(key), false);
+   }
+
+   /** Selector.kmin ordered by a long key. */
+   public static <T> T kminByLong(Collection<T> coll, int k, ToLongFunction<? super T> key) {
+      return kth(coll, k, key, false);
+   }
+
+   /** Selector.kmin ordered by a double key. */
+   public static <T> T kminByDouble(Collection<T> coll, int k,
+                                    ToDoubleFunction<? super T> key) {
+      return kth(coll, k, doubleKey(key), false);
+   }
+
+
+   /** Selector.kmax ordered by an int key. */
+   public static <T> T kmaxByInt(Collection<T> coll, int k, ToIntFunction<? super T> key) {
+      return kth(coll, k, intKey(key), true);
+   }
+
+   /** Selector.kmax ordered by a long key. */
+   public static <T> T kmaxByLong(Collection<T> coll, int k, ToLongFunction<? super T> key) {
+      return kth(coll, k, key, true);
+   }
+
+   /** Selector.kmax ordered by a double key. */
+   public static <T> T kmaxByDouble(Collection<T> coll, int k,
+                                    ToDoubleFunction<? super T> key) {
+      return kth(coll, k, doubleKey(key), true);
+   }
+
+
+   /** Selector.range over the elements whose int key is in [low..high]. */
+   public static <T> Collection<T> rangeByInt(Collection<T> coll, int low, int high,
+                                              ToIntFunction<? super T> key) {
+      return range(coll, low, high, intKey(key));
+   }
+
+   /** Selector.range over the elements whose long key is in [low..high]. */
+   public static <T> Collection<T> rangeByLong(Collection<T> coll, long low, long high,
+                                               ToLongFunction<? super T> key) {
+      return range(coll, low, high, key);
+   }
+
+   /** Selector.range over the elements whose double key is in [low..high]. */
+   public static <T> Collection<T> rangeByDouble(Collection<T> coll, double low, double high,
+                                                 ToDoubleFunction<? super T> key) {
+      return range(coll, sortable(low), sortable(high), doubleKey(key));
+   }
+
+
+   /** Selector.ceiling of an int key. */
+   public static <T> T ceilingByInt(Collection<T> coll, int value,
+                                    ToIntFunction<? super T> key) {
+      return ceiling(coll, value, intKey(key));
+   }
+
+   /** Selector.ceiling of a long key. */
+   public static <T> T ceilingByLong(Collection<T> coll, long value,
+                                     ToLongFunction<? super T> key) {
+      return ceiling(coll, value, key);
+   }
+
+   /** Selector.ceiling of a double key. */
+   public static <T> T ceilingByDouble(Collection<T> coll, double value,
+                                       ToDoubleFunction<? super T> key) {
+      return ceiling(coll, sortable(value), doubleKey(key));
+   }
+
+
+   /** Selector.floor of an int key. */
+   public static <T> T floorByInt(Collection<T> coll, int value,
+                                  ToIntFunction<? super T> key) {
+      return floor(coll, value, intKey(key));
+   }
+
+   /** Selector.floor of a long key. */
+   public static <T> T floorByLong(Collection<T> coll, long value,
+                                   ToLongFunction<? super T> key) {
+      return floor(coll, value, key);
+   }
+
+   /** Selector.floor of a double key. */
+   public static <T> T floorByDouble(Collection<T> coll, double value,
+                                     ToDoubleFunction<? super T> key) {
+      return floor(coll, sortable(value), doubleKey(key));
+   }
+
+
+   /**
+    * Returns a long that orders as Double.compare orders d.
+    */
+   static long sortable(double d) {
+      long bits = Double.doubleToLongBits(d);
+      return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+   }
+
+
+   private static <T> ToLongFunction<T> intKey(ToIntFunction<T> key) {
+      return key == null ? null : x -> key.applyAsInt(x);
+   }
+
+
+   private static <T> ToLongFunction<T> doubleKey(ToDoubleFunction<T> key) {
+      return key == null ? null : x -> sortable(key.applyAsDouble(x));
+   }
+
+
+   /**
+    * Throws the exceptions Selector throws for null arguments or an empty
+    * collection.
+    */
+   private static void check(Collection<?> coll, Object key) {
+      if (coll == null || key == null) {
+         throw new IllegalArgumentException("Arguments must not be null");
+      }
+      if (coll.isEmpty()) {
+         throw new NoSuchElementException("Collection must not be empty");
+      }
+   }
+
+
+   private static <T> T min(Collection<T> coll, ToLongFunction<? super T> key) {
+      check(coll, key);
+      Iterator<T> it = coll.iterator();
+      T min = it.next();
+      long minKey = key.applyAsLong(min);
+      while (it.hasNext()) {
+         T aux = it.next();
+         long auxKey = key.applyAsLong(aux);
+         if (auxKey < minKey) {
+            min = aux;
+            minKey = auxKey;
+         }
+      }
+      return min;
+   }
+
+
+   private static <T> T max(Collection<T> coll, ToLongFunction<? super T> key) {
+      check(coll, key);
+      Iterator<T> it = coll.iterator();
+      T max = it.next();
+      long maxKey = key.applyAsLong(max);
+      while (it.hasNext()) {
+         T aux = it.next();
+         long auxKey = key.applyAsLong(aux);
+         if (auxKey > maxKey) {
+            max = aux;
+            maxKey = auxKey;
+         }
+      }
+      return max;
+   }
+
+
+   private static <T> Collection<T> range(Collection<T> coll, long low, long high,
+                                          ToLongFunction<? super T> key) {
+      check(coll, key);
+      ArrayList<T> range = new ArrayList<T>();
+      for (T aux : coll) {
+         long auxKey = key.applyAsLong(aux);
+         if (auxKey >= low && auxKey <= high) {
+            range.add(aux);
+         }
+      }
+      if (range.isEmpty()) {
+         throw new NoSuchElementException("No such values fit arguments");
+      }
+      return range;
+   }
+
+
+   private static <T> T ceiling(Collection<T> coll, long value, ToLongFunction<? super T> key) {
+      check(coll, key);
+      T ceiling = null;
+      long ceilingKey = 0;
+      boolean stat = false; // Tracks if a ceiling exists
+      for (T aux : coll) {
+         long auxKey = key.applyAsLong(aux);
+         // Ties go to the later element, as in Selector.ceiling
+         if (auxKey >= value && (!stat || auxKey <= ceilingKey)) {
+            ceiling = aux;
+            ceilingKey = auxKey;
+            stat = true;
+         }
+      }
+      if (!stat) {
+         throw new NoSuchElementException("Ceiling does not exist");
+      }
+      return ceiling;
+   }
+
+
+   private static <T> T floor(Collection<T> coll, long value, ToLongFunction<? super T> key) {
+      check(coll, key);
+      T floor = null;
+      long floorKey = 0;
+      boolean stat = false; // Tracks if a floor exists
+      for (T aux : coll) {
+         long auxKey = key.applyAsLong(aux);
+         // Ties go to the later element, as in Selector.floor
+         if (auxKey <= value && (!stat || auxKey >= floorKey)) {
+            floor = aux;
+            floorKey = auxKey;
+            stat = true;
+         }
+      }
+      if (!stat) {
+         throw new NoSuchElementException("Floor does not exist");
+      }
+      return floor;
+   }
+
+
+   /**
+    * Selects the kth minimum, or the kth maximum when fromTop. Keys are
+    * derived once into an array. Each element's position is packed below
+    * the rank of its key among the distinct keys, and one primitive sort
+    * of the packed longs yields the order a stable sort by key would give.
+    * That order is scanned with equals as Selector scans it.
+    */
+   @SuppressWarnings("unchecked")
+   private static <T> T kth(Collection<T> coll, int k, ToLongFunction<? super T> key,
+                            boolean fromTop) {
+      check(coll, key);
+      if (k < 1 || k > coll.size()) {
+         throw new NoSuchElementException("Illegal k value");
+      }
+      Object[] a = coll.toArray();
+      int n = a.length;
+      long[] keys = new long[n];
+      for (int i = 0; i < n; i++) {
+         keys[i] = key.applyAsLong((T) a[i]);
+      }
+      long[] unique = keys.clone();
+      Arrays.sort(unique);
+      int u = 0;
+      for (int i = 0; i < n; i++) {
+         if (i == 0 || unique[i] != unique[u - 1]) {
+            unique[u++] = unique[i];
+         }
+      }
+      long[] order = new long[n];
+      for (int i = 0; i < n; i++) {
+         order[i] = ((long) Arrays.binarySearch(unique, 0, u, keys[i]) << 32) | i;
+      }
+      Arrays.sort(order);
+      // Count distinct values exactly as the sorted scans in Selector do
+      int count = 0;
+      Object prev = null;
+      for (int j = 0; j < n; j++) {
+         Object e = a[(int) order[fromTop ? n - 1 - j : j]];
+         if (j == 0 || !e.equals(prev)) {
+            if (++count == k) {
+               return (T) e;
+            }
+         }
+         prev = e;
+      }
+      throw new NoSuchElementException(k + "th min does not exist.");
+   }
+}
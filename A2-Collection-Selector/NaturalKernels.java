@@ -0,0 +1,257 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * NaturalKernels.java
+ * Scanning loops for Selector.min, max and range when the comparator is
+ * Comparator.naturalOrder(). Through a Comparator, every element costs an
+ * interface call whose call site sees every comparator class the program
+ * uses, so the JIT soon stops inlining it. These loops instead compare
+ * directly: unboxed for Integer, Long and Double, String.compareTo for
+ * String, and compareTo for any other Comparable. The kernel is chosen by
+ * the class of the first element.
+ *
+ * Every element must be of that same class for a kernel to apply. If one
+ * is not (a null, or a mix of types), the kernel returns NONE, and the
+ * caller runs its generic loop, which then behaves exactly as before,
+ * exceptions included. Each kernel gives the same answer, with the same
+ * tie-breaking, as the generic loop.
+ *
+ * @author  Will Humphlett (wah0028@auburn.edu)
+ * @version 10/17/2026
+ *
+ */
+final class NaturalKernels {
+
+   /** Returned when no kernel applies. */
+   static final Object NONE = new Object();
+
+   /**
+    * Can't instantiate this class.
+    */
+   private NaturalKernels() { }
+
+
+   /**
+    * Returns the first minimum (or maximum, when max) of a non-empty coll
+    * in natural order, or NONE.
+    */
+   static Object extreme(Collection<?> coll, boolean max) {
+      Object first = coll.iterator().next();
+      if (first instanceof Integer) {
+         return extremeInt(coll, max);
+      }
+      if (first instanceof Long) {
+         return extremeLong(coll, max);
+      }
+      if (first instanceof Double) {
+         return extremeDouble(coll, max);
+      }
+      if (first instanceof String) {
+         return extremeString(coll, max);
+      }
+      if (first instanceof Comparable) {
+         return extremeComparable(coll, max, first.getClass());
+      }
+      return NONE;
+   }
+
+
+   /**
+    * Returns the values of coll in [low..high] in natural order, in
+    * encounter order, or NONE. The list may be empty.
+    */
+   static Object range(Collection<?> coll, Object low, Object high) {
+      Object first = coll.iterator().next();
+      if (first instanceof Integer && low instanceof Integer && high instanceof Integer) {
+         return rangeInt(coll, (Integer) low, (Integer) high);
+      }
+      if (first instanceof Long && low instanceof Long && high instanceof Long) {
+         return rangeLong(coll, (Long) low, (Long) high);
+      }
+      if (first instanceof Double && low instanceof Double && high instanceof Double) {
+         return rangeDouble(coll, (Double) low, (Double) high);
+      }
+      if (first instanceof String && low instanceof String && high instanceof String) {
+         return rangeString(coll, (String) low, (String) high);
+      }
+      if (first instanceof Comparable && low != null && high != null
+            && low.getClass() == first.getClass() && high.getClass() == first.getClass()) {
+         return rangeComparable(coll, low, high, first.getClass());
+      }
+      return NONE;
+   }
+
+
+   private static Object extremeInt(Collection<?> coll, boolean max) {
+      Iterator<?> it = coll.iterator();
+      Object best = it.next();
+      int bestValue = (Integer) best;
+      while (it.hasNext()) {
+         Object aux = it.next();
+         if (!(aux instanceof Integer)) {
+            return NONE;
+         }
+         int value = (Integer) aux;
+         if (max ? value > bestValue : value < bestValue) {
+            best = aux;
+            bestValue = value;
+         }
+      }
+      return best;
+   }
+
+
+   private static Object extremeLong(Collection<?> coll, boolean max) {
+      Iterator<?> it = coll.iterator();
+      Object best = it.next();
+      long bestValue = (Long) best;
+      while (it.hasNext()) {
+         Object aux = it.next();
+         if (!(aux instanceof Long)) {
+            return NONE;
+         }
+         long value = (Long) aux;
+         if (max ? value > bestValue : value < bestValue) {
+            best = aux;
+            bestValue = value;
+         }
+      }
+      return best;
+   }
+
+
+   private static Object extremeDouble(Collection<?> coll, boolean max) {
+      Iterator<?> it = coll.iterator();
+      Object best = it.next();
+      double bestValue = (Double) best;
+      while (it.hasNext()) {
+         Object aux = it.next();
+         if (!(aux instanceof Double)) {
+            return NONE;
+         }
+         double value = (Double) aux;
+         // Double.compare, as Double.compareTo, orders -0.0 and NaN
+         int c = Double.compare(value, bestValue);
+         if (max ? c > 0 : c < 0) {
+            best = aux;
+            bestValue = value;
+         }
+      }
+      return best;
+   }
+
+
+   private static Object extremeString(Collection<?> coll, boolean max) {
+      Iterator<?> it = coll.iterator();
+      String best = (String) it.next();
+      while (it.hasNext()) {
+         Object aux = it.next();
+         if (!(aux instanceof String)) {
+            return NONE;
+         }
+         int c = ((String) aux).compareTo(best);
+         if (max ? c > 0 : c < 0) {
+            best = (String) aux;
+         }
+      }
+      return best;
+   }
+
+
+   @SuppressWarnings("unchecked")
+   private static Object extremeComparable(Collection<?> coll, boolean max, Class<?> type) {
+      Iterator<?> it = coll.iterator();
+      Object best = it.next();
+      while (it.hasNext()) {
+         Object aux = it.next();
+         if (aux == null || aux.getClass() != type) {
+            return NONE;
+         }
+         int c = ((Comparable<Object>) aux).compareTo(best);
+         if (max ? c > 0 : c < 0) {
+            best = aux;
+         }
+      }
+      return best;
+   }
+
+
+   private static Object rangeInt(Collection<?> coll, int low, int high) {
+      List<Object> range = new ArrayList<Object>();
+      for (Object aux : coll) {
+         if (!(aux instanceof Integer)) {
+            return NONE;
+         }
+         int value = (Integer) aux;
+         if (value >= low && value <= high) {
+            range.add(aux);
+         }
+      }
+      return range;
+   }
+
+
+   private static Object rangeLong(Collection<?> coll, long low, long high) {
+      List<Object> range = new ArrayList<Object>();
+      for (Object aux : coll) {
+         if (!(aux instanceof Long)) {
+            return NONE;
+         }
+         long value = (Long) aux;
+         if (value >= low && value <= high) {
+            range.add(aux);
+         }
+      }
+      return range;
+   }
+
+
+   private static Object rangeDouble(Collection<?> coll, double low, double high) {
+      List<Object> range = new ArrayList<Object>();
+      for (Object aux : coll) {
+         if (!(aux instanceof Double)) {
+            return NONE;
+         }
+         double value = (Double) aux;
+         if (Double.compare(value, low) >= 0 && Double.compare(value, high) <= 0) {
+            range.add(aux);
+         }
+      }
+      return range;
+   }
+
+
+   private static Object rangeString(Collection<?> coll, String low, String high) {
+      List<Object> range = new ArrayList<Object>();
+      for (Object aux : coll) {
+         if (!(aux instanceof String)) {
+            return NONE;
+         }
+         String value = (String) aux;
+         if (value.compareTo(low) >= 0 && value.compareTo(high) <= 0) {
+            range.add(aux);
+         }
+      }
+      return range;
+   }
+
+
+   @SuppressWarnings("unchecked")
+   private static Object rangeComparable(Collection<?> coll, Object low, Object high,
+                                         Class<?> type) {
+      List<Object> range = new ArrayList<Object>();
+      for (Object aux : coll) {
+         if (aux == null || aux.getClass() != type) {
+            return NONE;
+         }
+         Comparable<Object> value = (Comparable<Object>) aux;
+         if (value.compareTo(low) >= 0 && value.compareTo(high) <= 0) {
+            range.add(aux);
+         }
+      }
+      return range;
+   }
+}
@@ -0,0 +1,650 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * ParallelSelector.java
+ * Fork/join versions of the methods in Selector. Each method returns
+ * exactly what its Selector counterpart returns for the same arguments,
+ * down to which of several comparator-equal elements comes back, and
+ * throws the same exceptions.
+ *
+ * min, max, range, ceiling and floor split coll through its spliterator
+ * and scan the pieces in parallel. Pieces are combined in encounter order
+ * with the same tie rules as the sequential scans. kmin and kmax run a
+ * parallel sample partition: sampled splitters divide a copy of coll into
+ * buckets of consecutive comparator ranks, each bucket is stably sorted
+ * on its own, and the answer is located from per-bucket distinct counts.
+ *
+ * Collections smaller than the sequential threshold, and SortedSets that
+ * Selector can answer in logarithmic time, are handed straight to
+ * Selector. By default work runs in the common ForkJoinPool; every method
+ * also accepts a caller-supplied pool.
+ *
+ * @author  Will Humphlett (wah0028@auburn.edu)
+ * @version 10/17/2026
+ *
+ */
+public final class ParallelSelector {
+
+   /** Default size below which collections are processed by Selector. */
+   public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 1 << 13;
+
+   /** Smallest piece a single task will scan on its own. */
+   private static final int LEAF_SIZE = 1 << 10;
+
+   /** Sampled elements per bucket when choosing kth splitters. */
+   private static final int OVERSAMPLE = 32;
+
+   /** Collections smaller than this are processed by Selector. */
+   private static volatile int sequentialThreshold = DEFAULT_SEQUENTIAL_THRESHOLD;
+
+   /**
+    * Can't instantiate this class.
+    */
+   private ParallelSelector() { }
+
+
+   /**
+    * Returns the size below which collections are processed sequentially.
+    */
+   public static int getSequentialThreshold() {
+      return sequentialThreshold;
+   }
+
+
+   /**
+    * Sets the size below which collections are processed sequentially by
+    * Selector. Comparators that are expensive to call favor a lower
+    * threshold. This method throws IllegalArgumentException if threshold
+    * is negative.
+    */
+   public static void setSequentialThreshold(int threshold) {
+      if (threshold < 0) {
+         throw new IllegalArgumentException("Threshold must not be negative");
+      }
+      sequentialThreshold = threshold;
+   }
+
+
+   /**
+    * Selects the minimum value in coll as Selector.min does, using the
+    * common pool.
+    */
+   public static <T> T min(Collection<T> coll, Comparator<T> comp) {
+      return min(coll, comp, ForkJoinPool.commonPool());
+   }
+
+
+   /**
+    * Selects the minimum value in coll as Selector.min does, using the
+    * given pool.
+    */
+   public static <T> T min(Collection<T> coll, Comparator<T> comp, ForkJoinPool pool) {
+      if (sequential(coll, comp)) {
+         return Selector.min(coll, comp);
+      }
+      Reduce<T> task = new Min<T>(spliterator(coll), leafSize(coll, pool), comp);
+      pool.invoke(task);
+      return task.result;
+   }
+
+
+   /**
+    * Selects the maximum value in coll as Selector.max does, using the
+    * common pool.
+    */
+   public static <T> T max(Collection<T> coll, Comparator<T> comp) {
+      return max(coll, comp, ForkJoinPool.commonPool());
+   }
+
+
+   /**
+    * Selects the maximum value in coll as Selector.max does, using the
+    * given pool.
+    */
+   public static <T> T max(Collection<T> coll, Comparator<T> comp, ForkJoinPool pool) {
+      if (sequential(coll, comp)) {
+         return Selector.max(coll, comp);
+      }
+      Reduce<T> task = new Max<T>(spliterator(coll), leafSize(coll, pool), comp);
+      pool.invoke(task);
+      return task.result;
+   }
+
+
+   /**
+    * Selects the kth minimum value in coll as Selector.kmin does, using
+    * the common pool.
+    */
+   public static <T> T kmin(Collection<T> coll, int k, Comparator<T> comp) {
+      return kmin(coll, k, comp, ForkJoinPool.commonPool());
+   }
+
+
+   /**
+    * Selects the kth minimum value in coll as Selector.kmin does, using
+    * the given pool.
+    */
+   public static <T> T kmin(Collection<T> coll, int k, Comparator<T> comp, ForkJoinPool pool) {
+      if (coll == null || comp == null || coll.isEmpty()
+            || coll.size() < sequentialThreshold) {
+         return Selector.kmin(coll, k, comp);
+      }
+      if (k < 1 || k > coll.size()) {
+         throw new NoSuchElementException("Illegal k value");
+      }
+      return select(coll, k, comp, pool, false);
+   }
+
+
+   /**
+    * Selects the kth maximum value in coll as Selector.kmax does, using
+    * the common pool.
+    */
+   public static <T> T kmax(Collection<T> coll, int k, Comparator<T> comp) {
+      return kmax(coll, k, comp, ForkJoinPool.commonPool());
+   }
+
+
+   /**
+    * Selects the kth maximum value in coll as Selector.kmax does, using
+    * the given pool.
+    */
+   public static <T> T kmax(Collection<T> coll, int k, Comparator<T> comp, ForkJoinPool pool) {
+      if (coll == null || comp == null || coll.isEmpty()
+            || coll.size() < sequentialThreshold) {
+         return Selector.kmax(coll, k, comp);
+      }
+      if (k < 1 || k > coll.size()) {
+         throw new NoSuchElementException("Illegal k value");
+      }
+      return select(coll, k, comp, pool, true);
+   }
+
+
+   /**
+    * Returns the values of coll in the range [low..high] as Selector.range
+    * does, using the common pool.
+    */
+   public static <T> Collection<T> range(Collection<T> coll, T low, T high,
+                                         Comparator<T> comp) {
+      return range(coll, low, high, comp, ForkJoinPool.commonPool());
+   }
+
+
+   /**
+    * Returns the values of coll in the range [low..high] as Selector.range
+    * does, using the given pool. Each piece collects its own matches and
+    * the pieces are joined in encounter order, so the values appear in the
+    * same order as in coll.
+    */
+   public static <T> Collection<T> range(Collection<T> coll, T low, T high,
+                                         Comparator<T> comp, ForkJoinPool pool) {
+      if (sequential(coll, comp)) {
+         return Selector.range(coll, low, high, comp);
+      }
+      Range<T> task = new Range<T>(spliterator(coll), leafSize(coll, pool), comp, low, high);
+      pool.invoke(task);
+      if (task.matches.isEmpty()) {
+         throw new NoSuchElementException("No such values fit arguments");
+      }
+      return task.matches;
+   }
+
+
+   /**
+    * Returns the smallest value in coll that is greater than or equal to
+    * key as Selector.ceiling does, using the common pool.
+    */
+   public static <T> T ceiling(Collection<T> coll, T key, Comparator<T> comp) {
+      return ceiling(coll, key, comp, ForkJoinPool.commonPool());
+   }
+
+
+   /**
+    * Returns the smallest value in coll that is greater than or equal to
+    * key as Selector.ceiling does, using the given pool.
+    */
+   public static <T> T ceiling(Collection<T> coll, T key, Comparator<T> comp,
+                               ForkJoinPool pool) {
+      if (sequential(coll, comp)) {
+         return Selector.ceiling(coll, key, comp);
+      }
+      Reduce<T> task = new Ceiling<T>(spliterator(coll), leafSize(coll, pool), comp, key);
+      pool.invoke(task);
+      if (!task.found) {
+         throw new NoSuchElementException("Ceiling does not exist");
+      }
+      return task.result;
+   }
+
+
+   /**
+    * Returns the largest value in coll that is less than or equal to key
+    * as Selector.floor does, using the common pool.
+    */
+   public static <T> T floor(Collection<T> coll, T key, Comparator<T> comp) {
+      return floor(coll, key, comp, ForkJoinPool.commonPool());
+   }
+
+
+   /**
+    * Returns the largest value in coll that is less than or equal to key
+    * as Selector.floor does, using the given pool.
+    */
+   public static <T> T floor(Collection<T> coll, T key, Comparator<T> comp,
+                             ForkJoinPool pool) {
+      if (sequential(coll, comp)) {
+         return Selector.floor(coll, key, comp);
+      }
+      Reduce<T> task = new Floor<T>(spliterator(coll), leafSize(coll, pool), comp, key);
+      pool.invoke(task);
+      if (!task.found) {
+         throw new NoSuchElementException("Floor does not exist");
+      }
+      return task.result;
+   }
+
+
+   /**
+    * Returns true if Selector should handle this call: the arguments are
+    * invalid, coll is empty or small, or coll is a SortedSet already
+    * ordered by comp.
+    */
+   private static <T> boolean sequential(Collection<T> coll, Comparator<T> comp) {
+      return coll == null || comp == null || coll.isEmpty()
+         || coll.size() < sequentialThreshold || Selector.sortedBy(coll, comp) != null;
+   }
+
+
+   /**
+    * Returns a spliterator over coll in iteration order. Only ORDERED
+    * spliterators promise that trySplit hands back a prefix, so any other
+    * collection is split through a copy of its elements.
+    */
+   @SuppressWarnings("unchecked")
+   private static <T> Spliterator<T> spliterator(Collection<T> coll) {
+      Spliterator<T> split = coll.spliterator();
+      if (split.hasCharacteristics(Spliterator.ORDERED)) {
+         return split;
+      }
+      return (Spliterator<T>) Spliterators.spliterator(coll.toArray(), Spliterator.ORDERED);
+   }
+
+
+   /**
+    * Returns the leaf size for n elements, aiming at a few tasks per worker.
+    */
+   private static int leafSize(int n, ForkJoinPool pool) {
+      return Math.max(LEAF_SIZE, n / (pool.getParallelism() * 4));
+   }
+
+
+   private static int leafSize(Collection<?> coll, ForkJoinPool pool) {
+      return leafSize(coll.size(), pool);
+   }
+
+
+   /**
+    * Selects the kth minimum, or the kth maximum when fromTop, of coll.
+    * A copy of coll is scattered stably into buckets bounded by sampled
+    * splitters, so that sorting each bucket in parallel leaves the copy in
+    * the order Collections.sort would give. Each bucket then counts where
+    * distinct values start, by the same equals test Selector uses, and the
+    * answer is found in the one bucket whose counts cover rank k.
+    */
+   @SuppressWarnings("unchecked")
+   private static <T> T select(Collection<T> coll, int k, Comparator<T> comp,
+                               ForkJoinPool pool, boolean fromTop) {
+      Object[] a = coll.toArray();
+      int n = a.length;
+      Object[] splitters = splitters(a, pool.getParallelism() * 4, comp);
+      int buckets = splitters.length + 1;
+      int chunk = leafSize(n, pool);
+      int chunks = (n + chunk - 1) / chunk;
+      // Phase one: label each element with its bucket and count per chunk
+      int[] bucketOf = new int[n];
+      int[] counts = new int[chunks * buckets];
+      pool.invoke(new Each(0, chunks, c -> {
+         int hi = Math.min(c * chunk + chunk, n);
+         for (int i = c * chunk; i < hi; i++) {
+            int b = bucket(a[i], splitters, comp);
+            bucketOf[i] = b;
+            counts[c * buckets + b]++;
+         }
+      }));
+      // Bucket-major offsets keep every bucket in encounter order
+      int[] starts = new int[buckets + 1];
+      int total = 0;
+      for (int b = 0; b < buckets; b++) {
+         starts[b] = total;
+         for (int c = 0; c < chunks; c++) {
+            int count = counts[c * buckets + b];
+            counts[c * buckets + b] = total;
+            total += count;
+         }
+      }
+      starts[buckets] = n;
+      // Phase two: scatter, then sort each bucket on its own
+      Object[] sorted = new Object[n];
+      pool.invoke(new Each(0, chunks, c -> {
+         int hi = Math.min(c * chunk + chunk, n);
+         for (int i = c * chunk; i < hi; i++) {
+            sorted[counts[c * buckets + bucketOf[i]]++] = a[i];
+         }
+      }));
+      pool.invoke(new Each(0, buckets, b -> {
+         Arrays.sort((T[]) sorted, starts[b], starts[b + 1], comp);
+      }));
+      // Phase three: count the distinct values each bucket contributes
+      int[] distinct = new int[buckets];
+      pool.invoke(new Each(0, buckets, b -> {
+         int count = 0;
+         for (int i = starts[b]; i < starts[b + 1]; i++) {
+            if (startsRun(sorted, i, fromTop)) {
+               count++;
+            }
+         }
+         distinct[b] = count;
+      }));
+      // Find the bucket holding rank k and walk it
+      int rank = k;
+      for (int step = 0; step < buckets; step++) {
+         int b = fromTop ? buckets - 1 - step : step;
+         if (k > distinct[b]) {
+            k -= distinct[b];
+            continue;
+         }
+         for (int j = 0; j < starts[b + 1] - starts[b]; j++) {
+            int i = fromTop ? starts[b + 1] - 1 - j : starts[b] + j;
+            if (startsRun(sorted, i, fromTop) && --k == 0) {
+               return (T) sorted[i];
+            }
+         }
+      }
+      throw new NoSuchElementException(rank + "th min does not exist.");
+   }
+
+
+   /**
+    * Returns true if sorted[i] is counted as a new distinct value by the
+    * scan in Selector.kmin, or by the one in Selector.kmax when fromTop.
+    */
+   private static boolean startsRun(Object[] sorted, int i, boolean fromTop) {
+      if (fromTop) {
+         return i == sorted.length - 1 || !sorted[i].equals(sorted[i + 1]);
+      }
+      return i == 0 || !sorted[i].equals(sorted[i - 1]);
+   }
+
+
+   /**
+    * Picks up to count - 1 splitters, distinct under comp and in ascending
+    * order, from a random sample of a.
+    */
+   @SuppressWarnings("unchecked")
+   private static <T> Object[] splitters(Object[] a, int count, Comparator<T> comp) {
+      int size = Math.min(a.length, count * OVERSAMPLE);
+      Object[] sample = new Object[size];
+      Random random = new Random();
+      for (int i = 0; i < size; i++) {
+         sample[i] = a[random.nextInt(a.length)];
+      }
+      Arrays.sort((T[]) sample, comp);
+      ArrayList<Object> splitters = new ArrayList<Object>();
+      for (int i = 1; i < count; i++) {
+         Object candidate = sample[(int) ((long) i * size / count)];
+         if (splitters.isEmpty()
+               || comp.compare((T) candidate, (T) splitters.get(splitters.size() - 1)) > 0) {
+            splitters.add(candidate);
+         }
+      }
+      return splitters.toArray();
+   }
+
+
+   /**
+    * Returns the index of the first splitter that x does not exceed, or
+    * the number of splitters if x exceeds them all.
+    */
+   @SuppressWarnings("unchecked")
+   private static <T> int bucket(Object x, Object[] splitters, Comparator<T> comp) {
+      int lo = 0;
+      int hi = splitters.length;
+      while (lo < hi) {
+         int mid = (lo + hi) >>> 1;
+         if (comp.compare((T) x, (T) splitters[mid]) > 0) {
+            lo = mid + 1;
+         }
+         else {
+            hi = mid;
+         }
+      }
+      return lo;
+   }
+
+
+   /**
+    * Splits a spliterator until its pieces reach the leaf size, scans each
+    * piece, and combines results on the way back up. A piece's result is
+    * combined into the piece before it by accepting it as if it were the
+    * next element of a sequential scan, which keeps the tie rules of the
+    * Selector methods.
+    */
+   @SuppressWarnings("serial")
+   private abstract static class Reduce<T> extends RecursiveAction {
+      final Spliterator<T> split;
+      final int leaf;
+      final Comparator<T> comp;
+      T result;
+      boolean found;
+
+      Reduce(Spliterator<T> split, int leaf, Comparator<T> comp) {
+         this.split = split;
+         this.leaf = leaf;
+         this.comp = comp;
+      }
+
+      /** Returns a task over part of the same kind as this one. */
+      abstract Reduce<T> fork(Spliterator<T> part);
+
+      /** Scans x as the next element in encounter order. */
+      abstract void accept(T x);
+
+      /** Takes over the result of the first of this task's two pieces. */
+      void adopt(Reduce<T> first) {
+         result = first.result;
+         found = first.found;
+      }
+
+      /** Folds in the result of the piece that follows this one. */
+      void combine(Reduce<T> next) {
+         if (next.found) {
+            accept(next.result);
+         }
+      }
+
+      @Override
+      protected void compute() {
+         Spliterator<T> prefix = split.estimateSize() > leaf ? split.trySplit() : null;
+         if (prefix == null) {
+            split.forEachRemaining(this::accept);
+            return;
+         }
+         Reduce<T> left = fork(prefix);
+         Reduce<T> right = fork(split);
+         invokeAll(left, right);
+         adopt(left);
+         combine(right);
+      }
+   }
+
+
+   /** Minimum of a piece; the first of equal minimums wins. */
+   @SuppressWarnings("serial")
+   private static final class Min<T> extends Reduce<T> {
+      Min(Spliterator<T> split, int leaf, Comparator<T> comp) {
+         super(split, leaf, comp);
+      }
+
+      @Override
+      Reduce<T> fork(Spliterator<T> part) {
+         return new Min<T>(part, leaf, comp);
+      }
+
+      @Override
+      void accept(T x) {
+         if (!found || comp.compare(x, result) < 0) {
+            result = x;
+            found = true;
+         }
+      }
+   }
+
+
+   /** Maximum of a piece; the first of equal maximums wins. */
+   @SuppressWarnings("serial")
+   private static final class Max<T> extends Reduce<T> {
+      Max(Spliterator<T> split, int leaf, Comparator<T> comp) {
+         super(split, leaf, comp);
+      }
+
+      @Override
+      Reduce<T> fork(Spliterator<T> part) {
+         return new Max<T>(part, leaf, comp);
+      }
+
+      @Override
+      void accept(T x) {
+         if (!found || comp.compare(x, result) > 0) {
+            result = x;
+            found = true;
+         }
+      }
+   }
+
+
+   /** Ceiling of key in a piece; the last of equal candidates wins. */
+   @SuppressWarnings("serial")
+   private static final class Ceiling<T> extends Reduce<T> {
+      final T key;
+
+      Ceiling(Spliterator<T> split, int leaf, Comparator<T> comp, T key) {
+         super(split, leaf, comp);
+         this.key = key;
+      }
+
+      @Override
+      Reduce<T> fork(Spliterator<T> part) {
+         return new Ceiling<T>(part, leaf, comp, key);
+      }
+
+      @Override
+      void accept(T x) {
+         if (comp.compare(x, key) >= 0 && (!found || comp.compare(x, result) <= 0)) {
+            result = x;
+            found = true;
+         }
+      }
+   }
+
+
+   /** Floor of key in a piece; the last of equal candidates wins. */
+   @SuppressWarnings("serial")
+   private static final class Floor<T> extends Reduce<T> {
+      final T key;
+
+      Floor(Spliterator<T> split, int leaf, Comparator<T> comp, T key) {
+         super(split, leaf, comp);
+         this.key = key;
+      }
+
+      @Override
+      Reduce<T> fork(Spliterator<T> part) {
+         return new Floor<T>(part, leaf, comp, key);
+      }
+
+      @Override
+      void accept(T x) {
+         if (comp.compare(x, key) <= 0 && (!found || comp.compare(x, result) >= 0)) {
+            result = x;
+            found = true;
+         }
+      }
+   }
+
+
+   /** Values of a piece in [low..high], in encounter order. */
+   @SuppressWarnings("serial")
+   private static final class Range<T> extends Reduce<T> {
+      final T low;
+      final T high;
+      ArrayList<T> matches = new ArrayList<T>();
+
+      Range(Spliterator<T> split, int leaf, Comparator<T> comp, T low, T high) {
+         super(split, leaf, comp);
+         this.low = low;
+         this.high = high;
+      }
+
+      @Override
+      Reduce<T> fork(Spliterator<T> part) {
+         return new Range<T>(part, leaf, comp, low, high);
+      }
+
+      @Override
+      void accept(T x) {
+         if (comp.compare(x, low) >= 0 && comp.compare(x, high) <= 0) {
+            matches.add(x);
+         }
+      }
+
+      @Override
+      void adopt(Reduce<T> first) {
+         matches = ((Range<T>) first).matches;
+      }
+
+      @Override
+      void combine(Reduce<T> next) {
+         matches.addAll(((Range<T>) next).matches);
+      }
+   }
+
+
+   /**
+    * Runs body once for every index in [first..last), splitting the
+    * indices in half across tasks.
+    */
+   @SuppressWarnings("serial")
+   private static final class Each extends RecursiveAction {
+      final int first;
+      final int last;
+      final IntConsumer body;
+
+      Each(int first, int last, IntConsumer body) {
+         this.first = first;
+         this.last = last;
+         this.body = body;
+      }
+
+      @Override
+      protected void compute() {
+         if (last - first > 1) {
+            int mid = (first + last) >>> 1;
+            invokeAll(new Each(first, mid, body), new Each(mid, last, body));
+         }
+         else if (last > first) {
+            body.accept(first);
+         }
+      }
+   }
+}
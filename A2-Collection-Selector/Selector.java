@@ -1,13 +1,28 @@
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.SortedSet;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Defines a library of selection methods on Collections.
  *
+ * min, max, range, ceiling and floor answer from the structure of coll
+ * where they can. A SortedSet already ordered by comp is queried at its
+ * ends or through tailSet and headSet, and a RandomAccess List is walked
+ * by index. Any other Collection is scanned with its Iterator. Under
+ * Comparator.naturalOrder(), collections of Integer, Long, Double, String
+ * or another single Comparable type are scanned by NaturalKernels without
+ * going through the Comparator.
+ *
  * @author  Will Humphlett (wah0028@auburn.edu)
  * @author  Dean Hendrix (dh@auburn.edu)
  * @version 9/19/2019
@@ -23,6 +38,9 @@ public final class Selector {
  */
    private Selector() { }
 
+   /** The comparator returned by Comparator.naturalOrder(). */
+   private static final Comparator<?> NATURAL_ORDER = Comparator.naturalOrder();
+
 
    /**
     * Returns the minimum value in the Collection coll as defined by the
@@ -43,6 +61,27 @@ public final class Selector {
       if (coll.isEmpty()) {
          throw new NoSuchElementException("Collection must not be empty");
       }
+      SortedSet<T> sorted = sortedBy(coll, comp);
+      if (sorted != null) {
+         return sorted.first();
+      }
+      if ((Object) comp == NATURAL_ORDER) {
+         Object min = NaturalKernels.extreme(coll, false);
+         if (min != NaturalKernels.NONE) {
+            return cast(min);
+         }
+      }
+      List<T> list = indexed(coll);
+      if (list != null) {
+         T min = list.get(0);
+         for (int i = 1; i < list.size(); i++) {
+            T aux = list.get(i);
+            if (comp.compare(aux, min) < 0) {
+               min = aux;
+            }
+         }
+         return min;
+      }
       Iterator<T> it = coll.iterator();
       T min = it.next();
       while (it.hasNext()) {
@@ -74,6 +113,27 @@ public final class Selector {
       if (coll.isEmpty()) {
          throw new NoSuchElementException("Collection must not be empty");
       }
+      SortedSet<T> sorted = sortedBy(coll, comp);
+      if (sorted != null) {
+         return sorted.last();
+      }
+      if ((Object) comp == NATURAL_ORDER) {
+         Object max = NaturalKernels.extreme(coll, true);
+         if (max != NaturalKernels.NONE) {
+            return cast(max);
+         }
+      }
+      List<T> list = indexed(coll);
+      if (list != null) {
+         T max = list.get(0);
+         for (int i = 1; i < list.size(); i++) {
+            T aux = list.get(i);
+            if (comp.compare(aux, max) > 0) {
+               max = aux;
+            }
+         }
+         return max;
+      }
       Iterator<T> it = coll.iterator();
       T max = it.next();
       while (it.hasNext()) {
@@ -101,44 +161,7 @@ public final class Selector {
     * @throws        NoSuchElementException as per above
     */
    public static <T> T kmin(Collection<T> coll, int k, Comparator<T> comp) {
-      if (coll == null || comp == null) {
-         throw new IllegalArgumentException("Arguments must not be null");
-      }
-      if (coll.isEmpty()) {
-         throw new NoSuchElementException("Collection must not be empty");
-      }
-      if (k < 1 || k > coll.size()) {
-         throw new NoSuchElementException("Illegal k value");
-      }
-      // Copy collection for sorting
-      ArrayList<T> list = new ArrayList<T>();
-      Iterator<T> it = coll.iterator();
-      while (it.hasNext()) {
-         list.add(it.next());
-      }
-      java.util.Collections.sort(list, comp);
-      // Returns first element if k = 1
-      if (k == 1) {
-         return list.get(0);
-      }
-      // Counts minimums bar duplicate elements
-      T aux = list.get(0);
-      T kmin = null;
-      int tracker = 1;
-      for (int i = 1; i < list.size(); i++) {
-         if (!list.get(i).equals(aux)) {
-            tracker++;
-            if (k == tracker) {
-               kmin = list.get(i);
-            }
-         }
-         aux = list.get(i);
-      }
-      // Too many duplicates test
-      if (tracker < k) {
-         throw new NoSuchElementException(k + "th min does not exist.");
-      }
-      return kmin;
+      return kth(coll, k, comp, false, false);
    }
 
 
@@ -157,44 +180,84 @@ public final class Selector {
     * @throws        NoSuchElementException as per above
     */
    public static <T> T kmax(Collection<T> coll, int k, Comparator<T> comp) {
+      return kth(coll, k, comp, true, false);
+   }
+
+
+   /**
+    * Selects the kth minimum value from the Collection coll as defined by the
+    * Comparator comp, where two values are distinct if comp does not find
+    * them equal; equals is never called. Of comparator-equal values the
+    * first in coll's iteration order is returned. When equals is consistent
+    * with comp this is what kmin returns, and each element is compared a
+    * constant number of times once it has been partitioned. The exceptions
+    * are those of kmin. This method will not change coll in any way.
+    *
+    * @param coll    the Collection from which the value is selected
+    * @param k       the k-selection value
+    * @param comp    the Comparator that defines the total order on T
+    * @return        the kth minimum value in coll
+    * @throws        IllegalArgumentException as per above
+    * @throws        NoSuchElementException as per above
+    */
+   public static <T> T kminByComparator(Collection<T> coll, int k, Comparator<T> comp) {
+      return kth(coll, k, comp, false, true);
+   }
+
+
+   /**
+    * Selects the kth maximum value from the Collection coll as defined by the
+    * Comparator comp, where two values are distinct if comp does not find
+    * them equal; equals is never called. Of comparator-equal values the
+    * last in coll's iteration order is returned. When equals is consistent
+    * with comp this is what kmax returns. The exceptions are those of kmax.
+    * This method will not change coll in any way.
+    *
+    * @param coll    the Collection from which the value is selected
+    * @param k       the k-selection value
+    * @param comp    the Comparator that defines the total order on T
+    * @return        the kth maximum value in coll
+    * @throws        IllegalArgumentException as per above
+    * @throws        NoSuchElementException as per above
+    */
+   public static <T> T kmaxByComparator(Collection<T> coll, int k, Comparator<T> comp) {
+      return kth(coll, k, comp, true, true);
+   }
+
+
+   /**
+    * Returns the k smallest distinct values in the Collection coll as
+    * defined by the Comparator comp, in ascending order: element i of the
+    * returned List is what kmin(coll, i + 1, comp) returns. If coll has
+    * fewer than k distinct values, all of them are returned. If either coll
+    * or comp is null, this method throws an IllegalArgumentException. If
+    * coll is empty or k is less than 1, this method throws a
+    * NoSuchElementException. This method will not change coll in any way.
+    *
+    * @param coll    the Collection from which the values are selected
+    * @param k       the number of distinct values wanted
+    * @param comp    the Comparator that defines the total order on T
+    * @return        a List of the k smallest distinct values in coll
+    * @throws        IllegalArgumentException as per above
+    * @throws        NoSuchElementException as per above
+    */
+   public static <T> List<T> topK(Collection<T> coll, int k, Comparator<T> comp) {
       if (coll == null || comp == null) {
          throw new IllegalArgumentException("Arguments must not be null");
       }
       if (coll.isEmpty()) {
          throw new NoSuchElementException("Collection must not be empty");
       }
-      if (k < 1 || k > coll.size()) {
+      if (k < 1) {
          throw new NoSuchElementException("Illegal k value");
       }
-      // Copy collection for sorting
-      ArrayList<T> list = new ArrayList<T>();
-      Iterator<T> it = coll.iterator();
-      while (it.hasNext()) {
-         list.add(it.next());
-      }
-      java.util.Collections.sort(list, comp);
-      // Returns last element if k = 1
-      if (k == 1) {
-         return list.get(list.size() - 1);
-      }
-      // Counts maximums bar duplicate elements
-      T aux = list.get(list.size() - 1);
-      T kmax = null;
-      int tracker = 1;
-      for (int i = list.size() - 2; i >= 0; i--) {
-         if (!list.get(i).equals(aux)) {
-            tracker++;
-            if (k == tracker) {
-               kmax = list.get(i);
-            }
+      if (k <= TopKSelect.MAX_K) {
+         List<T> top = TopKSelect.smallest(coll, k, comp);
+         if (top != null) {
+            return new ArrayList<T>(top);
          }
-         aux = list.get(i);
       }
-      // Too many duplicates test
-      if (tracker < k) {
-         throw new NoSuchElementException(k + "th min does not exist.");
-      }
-      return kmax;
+      return CollectionSelect.prefix(coll.toArray(), k, comp);
    }
 
 
@@ -226,13 +289,38 @@ public final class Selector {
          throw new NoSuchElementException("Collection must not be empty");
       }
       ArrayList<T> range = new ArrayList<T>();
-      Iterator<T> it = coll.iterator();
-      while (it.hasNext()) {
-         T aux = it.next();
-         if (comp.compare(aux, low) >= 0 && comp.compare(aux,high) <= 0) {
+      SortedSet<T> sorted = sortedBy(coll, comp);
+      List<T> list = indexed(coll);
+      Object natural = sorted == null && (Object) comp == NATURAL_ORDER
+         ? NaturalKernels.range(coll, low, high) : NaturalKernels.NONE;
+      if (natural != NaturalKernels.NONE) {
+         range = cast(natural);
+      }
+      else if (sorted != null) {
+         for (T aux : tailFrom(sorted, low, high, comp)) {
+            if (comp.compare(aux, high) > 0) {
+               break;
+            }
             range.add(aux);
          }
       }
+      else if (list != null) {
+         for (int i = 0; i < list.size(); i++) {
+            T aux = list.get(i);
+            if (comp.compare(aux, low) >= 0 && comp.compare(aux, high) <= 0) {
+               range.add(aux);
+            }
+         }
+      }
+      else {
+         Iterator<T> it = coll.iterator();
+         while (it.hasNext()) {
+            T aux = it.next();
+            if (comp.compare(aux, low) >= 0 && comp.compare(aux,high) <= 0) {
+               range.add(aux);
+            }
+         }
+      }
       if (range.isEmpty()) {
          throw new NoSuchElementException("No such values fit arguments");
       }
@@ -240,6 +328,99 @@ public final class Selector {
    }
 
 
+   /**
+    * Returns a lazy view of the values in the Collection coll that are
+    * greater than or equal to low and less than or equal to high, as
+    * defined by the Comparator comp. Nothing is copied: each iterator
+    * filters coll as it goes, so a caller that stops early never looks at
+    * the rest of coll. The view yields the same values, in the same order,
+    * as range, but is simply empty when there are none. If either coll or
+    * comp is null, this method throws an IllegalArgumentException. coll
+    * must not be changed while the view is being iterated.
+    *
+    * @param coll    the Collection from which the range values are selected
+    * @param low     the lower bound of the range
+    * @param high    the upper bound of the range
+    * @param comp    the Comparator that defines the total order on T
+    * @return        an Iterable over the values between low and high
+    * @throws        IllegalArgumentException as per above
+    */
+   public static <T> Iterable<T> rangeView(Collection<T> coll, T low, T high,
+                                           Comparator<T> comp) {
+      if (coll == null || comp == null) {
+         throw new IllegalArgumentException("Arguments must not be null");
+      }
+      return () -> new RangeIterator<T>(coll, low, high, comp);
+   }
+
+
+   /**
+    * Returns a lazy, ordered Stream of the values in the Collection coll
+    * that are greater than or equal to low and less than or equal to high,
+    * as defined by the Comparator comp. The stream yields what rangeView
+    * yields and can short-circuit. If either coll or comp is null, this
+    * method throws an IllegalArgumentException.
+    *
+    * @param coll    the Collection from which the range values are selected
+    * @param low     the lower bound of the range
+    * @param high    the upper bound of the range
+    * @param comp    the Comparator that defines the total order on T
+    * @return        a Stream of the values between low and high
+    * @throws        IllegalArgumentException as per above
+    */
+   public static <T> Stream<T> rangeStream(Collection<T> coll, T low, T high,
+                                           Comparator<T> comp) {
+      if (coll == null || comp == null) {
+         throw new IllegalArgumentException("Arguments must not be null");
+      }
+      if (sortedBy(coll, comp) != null) {
+         return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+            new RangeIterator<T>(coll, low, high, comp), Spliterator.ORDERED), false);
+      }
+      // Filtering coll's own stream keeps its splitting for parallel use
+      return coll.stream().filter(x -> comp.compare(x, low) >= 0 && comp.compare(x, high) <= 0);
+   }
+
+
+   /**
+    * Returns the number of values in the Collection coll that are greater
+    * than or equal to low and less than or equal to high, as defined by the
+    * Comparator comp; that is, the size of the Collection range would
+    * return, or 0 where range would throw a NoSuchElementException. No
+    * values are collected. If either coll or comp is null, this method
+    * throws an IllegalArgumentException.
+    *
+    * @param coll    the Collection whose range values are counted
+    * @param low     the lower bound of the range
+    * @param high    the upper bound of the range
+    * @param comp    the Comparator that defines the total order on T
+    * @return        the number of values between low and high
+    * @throws        IllegalArgumentException as per above
+    */
+   public static <T> int rangeCount(Collection<T> coll, T low, T high, Comparator<T> comp) {
+      if (coll == null || comp == null) {
+         throw new IllegalArgumentException("Arguments must not be null");
+      }
+      int count = 0;
+      List<T> list = indexed(coll);
+      if (list != null) {
+         for (int i = 0; i < list.size(); i++) {
+            T aux = list.get(i);
+            if (comp.compare(aux, low) >= 0 && comp.compare(aux, high) <= 0) {
+               count++;
+            }
+         }
+         return count;
+      }
+      Iterator<T> it = new RangeIterator<T>(coll, low, high, comp);
+      while (it.hasNext()) {
+         it.next();
+         count++;
+      }
+      return count;
+   }
+
+
    /**
     * Returns the smallest value in the Collection coll that is greater than
     * or equal to key, as defined by the Comparator comp. The value of key
@@ -262,11 +443,22 @@ public final class Selector {
       if (coll.isEmpty()) {
          throw new NoSuchElementException("Collection must not be empty");
       }
+      SortedSet<T> sorted = sortedBy(coll, comp);
+      if (sorted != null) {
+         if (comp.compare(key, sorted.first()) <= 0) {
+            return sorted.first();
+         }
+         if (comp.compare(key, sorted.last()) > 0) {
+            throw new NoSuchElementException("Ceiling does not exist");
+         }
+         return sorted.tailSet(key).first();
+      }
       T ceiling = null;
       boolean stat = false; // Tracks if a ceiling exists
-      Iterator<T> it = coll.iterator();
-      while (it.hasNext()) {
-         T aux = it.next();
+      List<T> list = indexed(coll);
+      Iterator<T> it = list == null ? coll.iterator() : null;
+      for (int i = 0; list == null ? it.hasNext() : i < list.size(); i++) {
+         T aux = list == null ? it.next() : list.get(i);
          // If a ceiling has not been found, compare to key
          if(!stat && comp.compare(aux, key) >= 0) {
             ceiling = aux;
@@ -306,11 +498,23 @@ public final class Selector {
       if (coll.isEmpty()) {
          throw new NoSuchElementException("Collection must not be empty");
       }
+      SortedSet<T> sorted = sortedBy(coll, comp);
+      if (sorted != null) {
+         if (comp.compare(key, sorted.last()) >= 0) {
+            return sorted.last();
+         }
+         if (comp.compare(key, sorted.first()) < 0) {
+            throw new NoSuchElementException("Floor does not exist");
+         }
+         T next = sorted.tailSet(key).first();
+         return comp.compare(next, key) == 0 ? next : sorted.headSet(key).last();
+      }
       T floor = null;
       boolean stat = false; // Tracks if a floor exists
-      Iterator<T> it = coll.iterator();
-      while (it.hasNext()) {
-         T aux = it.next();
+      List<T> list = indexed(coll);
+      Iterator<T> it = list == null ? coll.iterator() : null;
+      for (int i = 0; list == null ? it.hasNext() : i < list.size(); i++) {
+         T aux = list == null ? it.next() : list.get(i);
          // If a floor has not been found, compare to key
          if(!stat && comp.compare(aux, key) <= 0) {
             floor = aux;
@@ -326,4 +530,150 @@ public final class Selector {
       }
       return floor;
    }
+
+
+   /**
+    * Selects the kth minimum, or the kth maximum when fromTop, counting
+    * values as distinct by equals or, when byComparator, by comp.
+    */
+   private static <T> T kth(Collection<T> coll, int k, Comparator<T> comp,
+                            boolean fromTop, boolean byComparator) {
+      if (coll == null || comp == null) {
+         throw new IllegalArgumentException("Arguments must not be null");
+      }
+      if (coll.isEmpty()) {
+         throw new NoSuchElementException("Collection must not be empty");
+      }
+      if (k < 1 || k > coll.size()) {
+         throw new NoSuchElementException("Illegal k value");
+      }
+      // Small k: one pass over coll, no copy
+      if (k <= TopKSelect.MAX_K) {
+         List<T> top = fromTop ? TopKSelect.largest(coll, k, comp, byComparator)
+            : TopKSelect.smallest(coll, k, comp, byComparator);
+         if (top != null) {
+            if (top.size() < k) {
+               throw new NoSuchElementException(k + "th min does not exist.");
+            }
+            return top.get(k - 1);
+         }
+      }
+      // Select from a private copy without sorting past the answer
+      Object[] found = new Object[1];
+      Object[] a = coll.toArray();
+      if (!(fromTop ? CollectionSelect.kmax(a, k, comp, byComparator, found)
+            : CollectionSelect.kmin(a, k, comp, byComparator, found))) {
+         throw new NoSuchElementException(k + "th min does not exist.");
+      }
+      @SuppressWarnings("unchecked")
+      T kth = (T) found[0];
+      return kth;
+   }
+
+
+   /**
+    * Returns coll as a SortedSet if it is one ordered by comp, or null
+    * otherwise. A set ordered by comp holds one element per comparator
+    * class, in ascending order, so every query can be answered from its
+    * ends or by a logarithmic tailSet or headSet lookup instead of a scan.
+    * A set with no comparator counts as ordered by natural ordering.
+    */
+   static <T> SortedSet<T> sortedBy(Collection<T> coll, Comparator<T> comp) {
+      if (!(coll instanceof SortedSet)) {
+         return null;
+      }
+      SortedSet<T> sorted = (SortedSet<T>) coll;
+      Comparator<? super T> order = sorted.comparator();
+      if (order == comp || (order == null && (Object) comp == NATURAL_ORDER)) {
+         return sorted;
+      }
+      return null;
+   }
+
+
+   /**
+    * Returns the part of sorted to walk for the range [low..high]: from low
+    * onward, or an empty collection if no value can qualify. low and high
+    * are checked against the ends of sorted first, so tailSet is only
+    * called with a key inside the set's own bounds, which keeps it safe on
+    * subSet and headSet views.
+    */
+   private static <T> Collection<T> tailFrom(SortedSet<T> sorted, T low, T high,
+                                             Comparator<T> comp) {
+      if (sorted.isEmpty() || comp.compare(low, high) > 0
+            || comp.compare(high, sorted.first()) < 0 || comp.compare(low, sorted.last()) > 0) {
+         return Collections.emptyList();
+      }
+      return comp.compare(low, sorted.first()) <= 0 ? sorted : sorted.tailSet(low);
+   }
+
+
+   @SuppressWarnings("unchecked")
+   private static <R> R cast(Object value) {
+      return (R) value;
+   }
+
+
+   /**
+    * Returns coll as a List if it supports fast random access, so that it
+    * can be walked by index without an Iterator, or null otherwise.
+    */
+   private static <T> List<T> indexed(Collection<T> coll) {
+      if (coll instanceof List && coll instanceof RandomAccess) {
+         return (List<T>) coll;
+      }
+      return null;
+   }
+
+
+   /**
+    * Yields the values of coll in [low..high] one at a time, looking ahead
+    * by at most one match. Over a SortedSet ordered by comp it starts at
+    * low and stops at the first value past high.
+    */
+   private static final class RangeIterator<T> implements Iterator<T> {
+      private final Iterator<T> it;
+      private final T low;
+      private final T high;
+      private final Comparator<T> comp;
+      private final boolean sorted;
+      private T next;
+      private boolean ready;
+      private boolean done;
+
+      RangeIterator(Collection<T> coll, T low, T high, Comparator<T> comp) {
+         this.low = low;
+         this.high = high;
+         this.comp = comp;
+         SortedSet<T> set = sortedBy(coll, comp);
+         sorted = set != null;
+         it = sorted ? tailFrom(set, low, high, comp).iterator() : coll.iterator();
+      }
+
+      @Override
+      public boolean hasNext() {
+         while (!ready && !done && it.hasNext()) {
+            T aux = it.next();
+            if (comp.compare(aux, high) > 0) {
+               done = sorted;
+            }
+            else if (comp.compare(aux, low) >= 0) {
+               next = aux;
+               ready = true;
+            }
+         }
+         return ready;
+      }
+
+      @Override
+      public T next() {
+         if (!hasNext()) {
+            throw new NoSuchElementException();
+         }
+         T aux = next;
+         next = null;
+         ready = false;
+         return aux;
+      }
+   }
 }
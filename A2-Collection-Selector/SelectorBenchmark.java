@@ -0,0 +1,125 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * SelectorBenchmark.java
+ * Times Selector.min, max and range under Comparator.naturalOrder(),
+ * which uses the NaturalKernels loops, against the same calls with a
+ * lambda comparator that orders identically but takes the generic path.
+ * Before timing, the generic path is called with several other
+ * comparators so that its compare call site is megamorphic, as it is in
+ * a program that uses many comparators. List sizes can be given on the
+ * command line; for example
+ *
+ *    java -Xmx2g SelectorBenchmark 1000000 5000000
+ *
+ * Each measurement is the best of several repetitions after a warm-up, so
+ * the numbers reflect compiled code.
+ *
+ * @author  Will Humphlett (wah0028@auburn.edu)
+ * @version 10/17/2026
+ *
+ */
+public class SelectorBenchmark {
+
+   /** Timed repetitions per measurement. */
+   private static final int REPS = 7;
+
+   /** Accumulates results so the JIT cannot discard the work. */
+   private static long sink;
+
+   /** Drives execution. */
+   public static void main(String[] args) {
+      int[] sizes = {1000000};
+      if (args.length > 0) {
+         sizes = new int[args.length];
+         for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+         }
+      }
+      Random rand = new Random(2210);
+      for (int n : sizes) {
+         List<Integer> ints = new ArrayList<Integer>(n);
+         List<Double> doubles = new ArrayList<Double>(n);
+         List<String> strings = new ArrayList<String>(n);
+         for (int i = 0; i < n; i++) {
+            ints.add(rand.nextInt());
+            doubles.add(rand.nextGaussian());
+            strings.add(Integer.toString(rand.nextInt(), 36));
+         }
+         pollute(ints, doubles, strings);
+         System.out.println("n = " + n);
+         run("Integer", ints, Comparator.<Integer>naturalOrder(), (x, y) -> x.compareTo(y),
+            -(1 << 29), 1 << 29);
+         run("Double", doubles, Comparator.<Double>naturalOrder(), (x, y) -> x.compareTo(y),
+            -0.5, 0.5);
+         run("String", strings, Comparator.<String>naturalOrder(), (x, y) -> x.compareTo(y),
+            "a", "m");
+         System.out.println();
+      }
+      if (sink == 42) {
+         System.out.println();
+      }
+   }
+
+   /**
+    * Times min, max and range on list through the generic comparator and
+    * through natural order.
+    */
+   private static <T> void run(String name, List<T> list, Comparator<T> natural,
+                               Comparator<T> generic, T low, T high) {
+      System.out.println("   " + name);
+      report("min", time(() -> sink += Selector.min(list, generic).hashCode()),
+         time(() -> sink += Selector.min(list, natural).hashCode()));
+      report("max", time(() -> sink += Selector.max(list, generic).hashCode()),
+         time(() -> sink += Selector.max(list, natural).hashCode()));
+      report("range", time(() -> sink += Selector.range(list, low, high, generic).size()),
+         time(() -> sink += Selector.range(list, low, high, natural).size()));
+   }
+
+   /**
+    * Calls the generic path with several comparator classes, so that the
+    * compare call site in Selector sees many receiver types.
+    */
+   private static void pollute(List<Integer> ints, List<Double> doubles, List<String> strings) {
+      List<Comparator<Integer>> intComps = new ArrayList<Comparator<Integer>>();
+      intComps.add(Comparator.reverseOrder());
+      intComps.add(Integer::compare);
+      intComps.add(Comparator.comparingInt(x -> x % 1000));
+      intComps.add((x, y) -> Integer.compare(y, x));
+      for (int rep = 0; rep < 3; rep++) {
+         for (Comparator<Integer> comp : intComps) {
+            sink += Selector.min(ints, comp) + Selector.max(ints, comp);
+            sink += Selector.range(ints, ints.get(0), ints.get(0), comp).size();
+         }
+         sink += Selector.min(doubles, Comparator.comparingDouble(Math::abs)).hashCode();
+         sink += Selector.max(strings, Comparator.comparingInt(String::length)).hashCode();
+      }
+   }
+
+   /**
+    * Prints one line comparing the generic and natural-order timings.
+    */
+   private static void report(String name, long generic, long natural) {
+      System.out.printf("      %-6s generic %9.3f ms   natural %9.3f ms   speedup %5.2fx%n",
+         name, generic / 1e6, natural / 1e6, (double) generic / natural);
+   }
+
+   /**
+    * Returns the best time in nanoseconds of REPS runs of task.
+    */
+   private static long time(Runnable task) {
+      for (int i = 0; i < REPS; i++) {
+         task.run();
+      }
+      long best = Long.MAX_VALUE;
+      for (int i = 0; i < REPS; i++) {
+         long start = System.nanoTime();
+         task.run();
+         best = Math.min(best, System.nanoTime() - start);
+      }
+      return best;
+   }
+}
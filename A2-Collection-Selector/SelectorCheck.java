@@ -0,0 +1,737 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * SelectorCheck.java
+ * Differential checks for the selectors in this folder. Random
+ * collections of items are queried through Selector, ParallelSelector,
+ * KeyedSelector, SortedCursor, CachingSelector and ExternalSelector, and
+ * every answer, or the exception thrown instead, is compared with the
+ * original sort-and-scan Selector kept below as the reference. An item's
+ * equals looks at a tag the comparator ignores, so ties, the choice
+ * among comparator-equal elements, and distinct counting by equals are
+ * all exercised. Each collection is tried as an ArrayList, a LinkedList,
+ * and, where the comparator allows, a TreeSet. ExternalSelector is also
+ * given a serializer that fails partway, and must leave no run files
+ * behind. A seed and a number of rounds can be given on the command
+ * line; for example
+ *
+ *    java SelectorCheck 42 4000
+ *
+ * The first mismatches are printed, and the exit status is 1 if there
+ * were any.
+ *
+ * @author  Will Humphlett (wah0028@auburn.edu)
+ * @version 10/17/2026
+ *
+ */
+public class SelectorCheck {
+
+   /** Mismatches printed before the rest are only counted. */
+   private static final int MAX_REPORTS = 20;
+
+   /** Orders items by key alone. */
+   private static final Comparator<Item> BY_KEY = (x, y) -> Integer.compare(x.key, y.key);
+
+   /** Orders items by key and then tag, consistently with equals. */
+   private static final Comparator<Item> BY_KEY_TAG =
+      BY_KEY.thenComparing((x, y) -> Integer.compare(x.tag, y.tag));
+
+   private static int checks;
+   private static int failures;
+   private static int nextId;
+
+   /**
+    * An element whose equals is finer than BY_KEY, and whose id tells
+    * equal elements apart in the printed answers.
+    */
+   private static final class Item {
+      final int key;
+      final int tag;
+      final int id;
+      final double weight;
+
+      Item(int key, int tag, int id, double weight) {
+         this.key = key;
+         this.tag = tag;
+         this.id = id;
+         this.weight = weight;
+      }
+
+      @Override
+      public boolean equals(Object o) {
+         return o instanceof Item && ((Item) o).key == key && ((Item) o).tag == tag;
+      }
+
+      @Override
+      public int hashCode() {
+         return 31 * key + tag;
+      }
+
+      @Override
+      public String toString() {
+         return key + "/" + tag + "#" + id;
+      }
+   }
+
+   /** Writes items to and reads them back from ExternalSelector runs. */
+   private static final ExternalSelector.Serializer<Item> ITEMS =
+      new ExternalSelector.Serializer<Item>() {
+         @Override
+         public void write(Item value, DataOutput out) throws IOException {
+            out.writeInt(value.key);
+            out.writeInt(value.tag);
+            out.writeInt(value.id);
+            out.writeDouble(value.weight);
+         }
+
+         @Override
+         public Item read(DataInput in) throws IOException {
+            return new Item(in.readInt(), in.readInt(), in.readInt(), in.readDouble());
+         }
+      };
+
+   /** Drives execution. */
+   public static void main(String[] args) {
+      long seed = args.length > 0 ? Long.parseLong(args[0]) : 2210;
+      int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+      Random rand = new Random(seed);
+      ForkJoinPool pool = new ForkJoinPool(4);
+      int threshold = ParallelSelector.getSequentialThreshold();
+      ParallelSelector.setSequentialThreshold(8);
+      try {
+         for (int round = 0; round < rounds; round++) {
+            List<Item> items = randomItems(rand, 1 + rand.nextInt(round % 5 == 0 ? 600 : 50));
+            String where = "round " + round;
+            checkCollection(rand, items, BY_KEY, where + " list");
+            checkCollection(rand, new LinkedList<Item>(items), BY_KEY, where + " linked");
+            TreeSet<Item> set = new TreeSet<Item>(BY_KEY_TAG);
+            set.addAll(items);
+            checkCollection(rand, set, BY_KEY_TAG, where + " tree set");
+            checkOthers(rand, items, pool, where);
+         }
+      }
+      finally {
+         ParallelSelector.setSequentialThreshold(threshold);
+         pool.shutdown();
+      }
+      checkNatural(rand);
+      checkEmpty();
+      checkSpillFailures(rand);
+      System.out.println(checks + " checks, " + failures + " failures");
+      if (failures > 0) {
+         System.exit(1);
+      }
+   }
+
+
+   /**
+    * Returns n items with keys drawn from a span that may be narrow, so
+    * that comparator ties and equal items are common.
+    */
+   private static List<Item> randomItems(Random rand, int n) {
+      int span = 1 + rand.nextInt(rand.nextBoolean() ? n : 4 * n);
+      double[] special = {0.0, -0.0, Double.NaN, Double.NEGATIVE_INFINITY, 1.5};
+      List<Item> items = new ArrayList<Item>(n);
+      for (int i = 0; i < n; i++) {
+         double weight = rand.nextInt(8) == 0 ? special[rand.nextInt(special.length)]
+            : rand.nextInt(2 * span) / 4.0 - span / 4.0;
+         items.add(new Item(rand.nextInt(span) - span / 2, rand.nextInt(3), nextId++, weight));
+      }
+      return items;
+   }
+
+
+   /**
+    * Queries coll through Selector and compares each answer with the
+    * reference.
+    */
+   private static void checkCollection(Random rand, Collection<Item> coll,
+                                       Comparator<Item> comp, String where) {
+      List<Item> copy = new ArrayList<Item>(coll);
+      int n = copy.size();
+      compare(where + " min", show(() -> refMin(coll, comp)),
+         show(() -> Selector.min(coll, comp)));
+      compare(where + " max", show(() -> refMax(coll, comp)),
+         show(() -> Selector.max(coll, comp)));
+      for (int q = 0; q < 6; q++) {
+         int k = rand.nextInt(n + 3) - 1;
+         Item key = probe(rand, copy);
+         Item other = probe(rand, copy);
+         Item low = comp.compare(key, other) <= 0 ? key : other;
+         Item high = low == key ? other : key;
+         compare(where + " kmin " + k, show(() -> refKmin(coll, k, comp)),
+            show(() -> Selector.kmin(coll, k, comp)));
+         compare(where + " kmax " + k, show(() -> refKmax(coll, k, comp)),
+            show(() -> Selector.kmax(coll, k, comp)));
+         compare(where + " kminByComparator " + k,
+            show(() -> refKthByComparator(coll, k, comp, false)),
+            show(() -> Selector.kminByComparator(coll, k, comp)));
+         compare(where + " kmaxByComparator " + k,
+            show(() -> refKthByComparator(coll, k, comp, true)),
+            show(() -> Selector.kmaxByComparator(coll, k, comp)));
+         compare(where + " topK " + k, show(() -> refTopK(coll, k, comp)),
+            show(() -> Selector.topK(coll, k, comp)));
+         compare(where + " ceiling " + key, show(() -> refCeiling(coll, key, comp)),
+            show(() -> Selector.ceiling(coll, key, comp)));
+         compare(where + " floor " + key, show(() -> refFloor(coll, key, comp)),
+            show(() -> Selector.floor(coll, key, comp)));
+         String range = show(() -> refRange(coll, low, high, comp));
+         // The lazy forms give no matches where range throws
+         String lazy = range.startsWith(NoSuchElementException.class.getSimpleName())
+            ? "[]" : range;
+         compare(where + " range " + low + " " + high, range,
+            show(() -> Selector.range(coll, low, high, comp)));
+         compare(where + " lazy range", lazy,
+            show(() -> toList(Selector.rangeView(coll, low, high, comp))),
+            show(() -> Selector.rangeStream(coll, low, high, comp)
+               .collect(Collectors.toList())));
+         compare(where + " range count", show(() -> matches(coll, low, high, comp)),
+            show(() -> Selector.rangeCount(coll, low, high, comp)));
+      }
+      compare(where + " unchanged", show(() -> copy), show(() -> new ArrayList<Item>(coll)));
+   }
+
+
+   /**
+    * Checks the selectors other than Selector on one list of items.
+    */
+   private static void checkOthers(Random rand, List<Item> items, ForkJoinPool pool,
+                                   String where) {
+      int n = items.size();
+      Comparator<Item> byWeight = Comparator.comparingDouble(x -> x.weight);
+      CachingSelector cache = new CachingSelector(4, 1L << 20);
+      CachingSelector.Tracked<Item> tracked = CachingSelector.track(new ArrayList<Item>(items));
+      CachingSelector.Snapshot<Item> before = cache.view(tracked, BY_KEY);
+      tracked.add(items.get(rand.nextInt(n)));
+      tracked.remove(items.get(rand.nextInt(n)));
+      List<Item> changed = new ArrayList<Item>(tracked);
+      CachingSelector.Snapshot<Item> snapshot = cache.view(tracked, BY_KEY);
+      ExternalSelector<Item> external = new ExternalSelector<Item>(BY_KEY, ITEMS,
+         2 + rand.nextInt(Math.max(2, n / 3)));
+      SortedCursor<Item> cursor = new SortedCursor<Item>(items, BY_KEY);
+      compare(where + " snapshot retaken", show(() -> before != snapshot), show(() -> true));
+      compare(where + " parallel min", show(() -> refMin(items, BY_KEY)),
+         show(() -> ParallelSelector.min(items, BY_KEY, pool)));
+      compare(where + " snapshot min", show(() -> refMin(changed, BY_KEY)),
+         show(() -> snapshot.min()));
+      compare(where + " snapshot max", show(() -> refMax(changed, BY_KEY)),
+         show(() -> snapshot.max()));
+      compare(where + " parallel max", show(() -> refMax(items, BY_KEY)),
+         show(() -> ParallelSelector.max(items, BY_KEY, pool)));
+      compare(where + " keyed min", show(() -> refMin(items, byWeight)),
+         show(() -> KeyedSelector.minByDouble(items, x -> x.weight)));
+      compare(where + " keyed max", show(() -> refMax(items, BY_KEY)),
+         show(() -> KeyedSelector.maxByInt(items, x -> x.key)));
+      for (int q = 0; q < 4; q++) {
+         int k = rand.nextInt(n + 2);
+         Item key = probe(rand, items);
+         Item other = probe(rand, items);
+         Item low = key.key <= other.key ? key : other;
+         Item high = low == key ? other : key;
+         double weight = rand.nextBoolean() ? items.get(rand.nextInt(n)).weight
+            : rand.nextGaussian();
+         compare(where + " kmin " + k, show(() -> refKmin(items, k, BY_KEY)),
+            show(() -> ParallelSelector.kmin(items, k, BY_KEY, pool)),
+            show(() -> KeyedSelector.kminByInt(items, k, x -> x.key)),
+            show(() -> KeyedSelector.kminByLong(items, k, x -> (long) x.key << 20)),
+            show(() -> external(() -> external.kmin(items, k))));
+         // The cursor only promises a NoSuchElementException past the last rank
+         compare(where + " cursor kmin " + k, kind(show(() -> refKmin(items, k, BY_KEY))),
+            kind(show(() -> cursor.kmin(k))));
+         compare(where + " kmax " + k, show(() -> refKmax(items, k, BY_KEY)),
+            show(() -> ParallelSelector.kmax(items, k, BY_KEY, pool)),
+            show(() -> KeyedSelector.kmaxByInt(items, k, x -> x.key)),
+            show(() -> external(() -> external.kmax(items, k))));
+         compare(where + " snapshot kmin " + k, show(() -> refKmin(changed, k, BY_KEY)),
+            show(() -> snapshot.kmin(k)));
+         compare(where + " snapshot kmax " + k, show(() -> refKmax(changed, k, BY_KEY)),
+            show(() -> snapshot.kmax(k)));
+         compare(where + " weight kmin " + k, show(() -> refKmin(items, k, byWeight)),
+            show(() -> KeyedSelector.kminByDouble(items, k, x -> x.weight)));
+         compare(where + " ceiling", show(() -> refCeiling(items, key, BY_KEY)),
+            show(() -> ParallelSelector.ceiling(items, key, BY_KEY, pool)),
+            show(() -> KeyedSelector.ceilingByInt(items, key.key, x -> x.key)));
+         compare(where + " floor", show(() -> refFloor(items, key, BY_KEY)),
+            show(() -> ParallelSelector.floor(items, key, BY_KEY, pool)),
+            show(() -> KeyedSelector.floorByInt(items, key.key, x -> x.key)));
+         compare(where + " snapshot ceiling", show(() -> refCeiling(changed, key, BY_KEY)),
+            show(() -> snapshot.ceiling(key)));
+         compare(where + " snapshot floor", show(() -> refFloor(changed, key, BY_KEY)),
+            show(() -> snapshot.floor(key)));
+         compare(where + " weight floor",
+            show(() -> refFloor(items, weighing(weight), byWeight)),
+            show(() -> KeyedSelector.floorByDouble(items, weight, x -> x.weight)));
+         compare(where + " range", show(() -> refRange(items, low, high, BY_KEY)),
+            show(() -> ParallelSelector.range(items, low, high, BY_KEY, pool)),
+            show(() -> KeyedSelector.rangeByInt(items, low.key, high.key, x -> x.key)));
+         compare(where + " external range", show(() -> matchList(items, low, high, BY_KEY)),
+            show(() -> externalRange(external, items, low, high)));
+         compare(where + " snapshot range", show(() -> refRange(changed, low, high, BY_KEY)),
+            show(() -> snapshot.range(low, high)));
+      }
+      // Walking the cursor to the end visits every kmin rank in order
+      List<Item> walked = new ArrayList<Item>();
+      SortedCursor<Item> walk = new SortedCursor<Item>(items, BY_KEY);
+      while (walk.hasNext()) {
+         walked.add(walk.next());
+      }
+      compare(where + " cursor walk", show(() -> refTopK(items, n, BY_KEY)),
+         show(() -> walked));
+   }
+
+
+   /**
+    * Checks the natural-order kernels on boxed values, where the first of
+    * several equal minimums must be returned, not just an equal value.
+    */
+   private static void checkNatural(Random rand) {
+      for (int round = 0; round < 200; round++) {
+         int n = 1 + rand.nextInt(200);
+         List<Integer> ints = new ArrayList<Integer>();
+         List<Double> doubles = new ArrayList<Double>();
+         List<String> strings = new ArrayList<String>();
+         for (int i = 0; i < n; i++) {
+            int v = 1000 + rand.nextInt(20);
+            ints.add(v);
+            doubles.add(rand.nextInt(10) == 0 ? -0.0 : rand.nextInt(10) / 2.0);
+            strings.add(Integer.toString(rand.nextInt(30), 36));
+         }
+         checkNatural(ints, ints.get(rand.nextInt(n)), "ints " + round);
+         checkNatural(doubles, doubles.get(rand.nextInt(n)), "doubles " + round);
+         checkNatural(strings, strings.get(rand.nextInt(n)), "strings " + round);
+      }
+   }
+
+
+   private static <T extends Comparable<T>> void checkNatural(List<T> list, T high,
+                                                              String where) {
+      Comparator<T> natural = Comparator.naturalOrder();
+      Comparator<T> generic = (x, y) -> x.compareTo(y);
+      T low = refMin(list, generic);
+      compare(where + " min", identity(refMin(list, generic)),
+         identity(Selector.min(list, natural)));
+      compare(where + " max", identity(refMax(list, generic)),
+         identity(Selector.max(list, natural)));
+      compare(where + " range", identities(refRange(list, low, high, generic)),
+         identities(Selector.range(list, low, high, natural)));
+   }
+
+
+   /**
+    * Checks that every method rejects an empty collection as the original
+    * did.
+    */
+   private static void checkEmpty() {
+      List<Item> empty = Collections.emptyList();
+      Item key = new Item(0, 0, -1, 0);
+      compare("empty min", show(() -> refMin(empty, BY_KEY)),
+         show(() -> Selector.min(empty, BY_KEY)),
+         show(() -> ParallelSelector.min(empty, BY_KEY)));
+      compare("empty kmin", show(() -> refKmin(empty, 1, BY_KEY)),
+         show(() -> Selector.kmin(empty, 1, BY_KEY)),
+         show(() -> Selector.kminByComparator(empty, 1, BY_KEY)),
+         show(() -> ParallelSelector.kmin(empty, 1, BY_KEY)));
+      compare("empty range", show(() -> refRange(empty, key, key, BY_KEY)),
+         show(() -> Selector.range(empty, key, key, BY_KEY)));
+      compare("empty ceiling", show(() -> refCeiling(empty, key, BY_KEY)),
+         show(() -> Selector.ceiling(empty, key, BY_KEY)));
+      compare("null collection", show(() -> refMin(null, BY_KEY)),
+         show(() -> Selector.min(null, BY_KEY)), show(() -> Selector.kmin(null, 1, BY_KEY)));
+   }
+
+
+   /**
+    * Checks that ExternalSelector deletes every run file when the
+    * serializer fails, whether in the first spill, a later spill, a merge
+    * pass or the final merge, and with a checked or an unchecked
+    * exception. Each selection spills to an empty directory of its own,
+    * which must be empty again once the selection has failed.
+    */
+   private static void checkSpillFailures(Random rand) {
+      // Enough runs of two items to force one merge pass
+      List<Item> items = randomItems(rand, 2 * ExternalSelector.MAX_FAN_IN + 100);
+      int n = items.size();
+      int[] limits = {0, 1, 3, n / 2, n - 1, n, n + 5, 2 * n - 1, 2 * n + 7, Integer.MAX_VALUE};
+      for (int limit : limits) {
+         for (int mode = 0; mode < 4; mode++) {
+            Failing failing = new Failing(limit, mode % 2 == 0, mode < 2);
+            String where = "spill failure " + limit + " " + failing;
+            File dir = tempDirectory();
+            ExternalSelector<Item> external =
+               new ExternalSelector<Item>(BY_KEY, failing, 2, dir);
+            int k = 1 + rand.nextInt(n);
+            boolean fromTop = rand.nextBoolean();
+            String answer;
+            try {
+               answer = show(() -> external(() -> fromTop ? external.kmax(items, k)
+                  : external.kmin(items, k)));
+            }
+            catch (UncheckedIOException | IllegalStateException e) {
+               answer = "failed";
+            }
+            String expected = failing.failed ? "failed" : show(() -> fromTop
+               ? refKmax(items, k, BY_KEY) : refKmin(items, k, BY_KEY));
+            compare(where + " answer", expected, answer);
+            String[] left = dir.list();
+            compare(where + " files left", "0", String.valueOf(left == null ? -1 : left.length));
+            dir.delete();
+         }
+      }
+   }
+
+
+   private static File tempDirectory() {
+      try {
+         return Files.createTempDirectory("check").toFile();
+      }
+      catch (IOException e) {
+         throw new UncheckedIOException(e);
+      }
+   }
+
+
+   /**
+    * Serializes items as ITEMS does until a given number of writes, or of
+    * reads, have succeeded, and then throws an IOException or, if not
+    * checked, an IllegalStateException, and records that it failed.
+    */
+   private static final class Failing implements ExternalSelector.Serializer<Item> {
+      private final int limit;
+      private final boolean onWrite;
+      private final boolean checked;
+      private int count;
+      boolean failed;
+
+      Failing(int limit, boolean onWrite, boolean checked) {
+         this.limit = limit;
+         this.onWrite = onWrite;
+         this.checked = checked;
+      }
+
+      @Override
+      public void write(Item value, DataOutput out) throws IOException {
+         if (onWrite) {
+            fail();
+         }
+         ITEMS.write(value, out);
+      }
+
+      @Override
+      public Item read(DataInput in) throws IOException {
+         if (!onWrite) {
+            fail();
+         }
+         return ITEMS.read(in);
+      }
+
+      private void fail() throws IOException {
+         if (count++ == limit) {
+            failed = true;
+            if (checked) {
+               throw new IOException("serializer failed");
+            }
+            throw new IllegalStateException("serializer failed");
+         }
+      }
+
+      @Override
+      public String toString() {
+         return (onWrite ? "write" : "read") + (checked ? " checked" : " unchecked");
+      }
+   }
+
+
+   /**
+    * Returns an item of items or, half the time, a fresh probe item.
+    */
+   private static Item probe(Random rand, List<Item> items) {
+      if (rand.nextBoolean()) {
+         return items.get(rand.nextInt(items.size()));
+      }
+      Item some = items.get(rand.nextInt(items.size()));
+      return new Item(some.key + rand.nextInt(5) - 2, rand.nextInt(3), -1, 0);
+   }
+
+
+   private static Item weighing(double weight) {
+      return new Item(0, 0, -1, weight);
+   }
+
+
+   private static <T> List<T> toList(Iterable<T> view) {
+      List<T> list = new ArrayList<T>();
+      for (T x : view) {
+         list.add(x);
+      }
+      return list;
+   }
+
+
+   private static Item external(IOSupplier<Item> select) {
+      try {
+         return select.get();
+      }
+      catch (IOException e) {
+         throw new UncheckedIOException(e);
+      }
+   }
+
+
+   private static List<Item> externalRange(ExternalSelector<Item> external, List<Item> items,
+                                           Item low, Item high) {
+      List<Item> found = new ArrayList<Item>();
+      external.range(items, low, high, found::add);
+      return found;
+   }
+
+
+   /** A selection that can fail with an IOException. */
+   private interface IOSupplier<T> {
+      T get() throws IOException;
+   }
+
+
+   private static <T> int matches(Collection<T> coll, T low, T high, Comparator<T> comp) {
+      return matchList(coll, low, high, comp).size();
+   }
+
+
+   private static <T> List<T> matchList(Collection<T> coll, T low, T high, Comparator<T> comp) {
+      List<T> found = new ArrayList<T>();
+      for (T x : coll) {
+         if (comp.compare(x, low) >= 0 && comp.compare(x, high) <= 0) {
+            found.add(x);
+         }
+      }
+      return found;
+   }
+
+
+   /**
+    * Records one check: every answer must equal the first.
+    */
+   private static void compare(String what, String expected, String... answers) {
+      checks++;
+      for (int i = 0; i < answers.length; i++) {
+         if (!expected.equals(answers[i])) {
+            if (failures++ < MAX_REPORTS) {
+               System.out.println(what + ": answer " + i + " was " + answers[i]
+                  + ", expected " + expected);
+            }
+         }
+      }
+   }
+
+
+   /**
+    * Returns a printable answer, or the class and message of the exception
+    * thrown instead.
+    */
+   private static String show(Supplier<Object> answer) {
+      try {
+         return String.valueOf(answer.get());
+      }
+      catch (IllegalArgumentException | NoSuchElementException e) {
+         return e.getClass().getSimpleName() + ": " + e.getMessage();
+      }
+   }
+
+
+   /**
+    * Returns a shown answer with any exception message dropped.
+    */
+   private static String kind(String shown) {
+      int colon = shown.indexOf("Exception: ");
+      return colon < 0 ? shown : shown.substring(0, colon + "Exception".length());
+   }
+
+
+   private static String identity(Object x) {
+      return x + "@" + System.identityHashCode(x);
+   }
+
+
+   private static String identities(Collection<?> coll) {
+      StringBuilder s = new StringBuilder();
+      for (Object x : coll) {
+         s.append(identity(x)).append(' ');
+      }
+      return s.toString();
+   }
+
+
+   // The original Selector, which sorts a copy for every rank query.
+
+   private static <T> void checkArguments(Collection<T> coll, Comparator<T> comp) {
+      if (coll == null || comp == null) {
+         throw new IllegalArgumentException("Arguments must not be null");
+      }
+      if (coll.isEmpty()) {
+         throw new NoSuchElementException("Collection must not be empty");
+      }
+   }
+
+
+   private static <T> T refMin(Collection<T> coll, Comparator<T> comp) {
+      checkArguments(coll, comp);
+      T min = null;
+      for (T x : coll) {
+         if (min == null || comp.compare(x, min) < 0) {
+            min = x;
+         }
+      }
+      return min;
+   }
+
+
+   private static <T> T refMax(Collection<T> coll, Comparator<T> comp) {
+      checkArguments(coll, comp);
+      T max = null;
+      for (T x : coll) {
+         if (max == null || comp.compare(x, max) > 0) {
+            max = x;
+         }
+      }
+      return max;
+   }
+
+
+   /**
+    * Returns the sorted list the original kmin and kmax scanned.
+    */
+   private static <T> List<T> refSorted(Collection<T> coll, int k, Comparator<T> comp) {
+      checkArguments(coll, comp);
+      if (k < 1 || k > coll.size()) {
+         throw new NoSuchElementException("Illegal k value");
+      }
+      List<T> list = new ArrayList<T>(coll);
+      list.sort(comp);
+      return list;
+   }
+
+
+   private static <T> T refKmin(Collection<T> coll, int k, Comparator<T> comp) {
+      List<T> list = refSorted(coll, k, comp);
+      int count = 0;
+      for (int i = 0; i < list.size(); i++) {
+         if (i == 0 || !list.get(i).equals(list.get(i - 1))) {
+            if (++count == k) {
+               return list.get(i);
+            }
+         }
+      }
+      throw new NoSuchElementException(k + "th min does not exist.");
+   }
+
+
+   private static <T> T refKmax(Collection<T> coll, int k, Comparator<T> comp) {
+      List<T> list = refSorted(coll, k, comp);
+      int count = 0;
+      for (int i = list.size() - 1; i >= 0; i--) {
+         if (i == list.size() - 1 || !list.get(i).equals(list.get(i + 1))) {
+            if (++count == k) {
+               return list.get(i);
+            }
+         }
+      }
+      throw new NoSuchElementException(k + "th min does not exist.");
+   }
+
+
+   /**
+    * As refKmin and refKmax, but values are distinct when comp says so.
+    */
+   private static <T> T refKthByComparator(Collection<T> coll, int k, Comparator<T> comp,
+                                           boolean fromTop) {
+      List<T> list = refSorted(coll, k, comp);
+      if (fromTop) {
+         // Reversed, each group starts with its last element in encounter order
+         Collections.reverse(list);
+      }
+      int count = 0;
+      for (int i = 0; i < list.size(); i++) {
+         if (i == 0 || comp.compare(list.get(i), list.get(i - 1)) != 0) {
+            if (++count == k) {
+               return list.get(i);
+            }
+         }
+      }
+      throw new NoSuchElementException(k + "th min does not exist.");
+   }
+
+
+   private static <T> List<T> refTopK(Collection<T> coll, int k, Comparator<T> comp) {
+      checkArguments(coll, comp);
+      if (k < 1) {
+         throw new NoSuchElementException("Illegal k value");
+      }
+      List<T> top = new ArrayList<T>();
+      for (int i = 1; i <= Math.min(k, coll.size()); i++) {
+         try {
+            top.add(refKmin(coll, i, comp));
+         }
+         catch (NoSuchElementException e) {
+            break;
+         }
+      }
+      return top;
+   }
+
+
+   private static <T> Collection<T> refRange(Collection<T> coll, T low, T high,
+                                             Comparator<T> comp) {
+      checkArguments(coll, comp);
+      List<T> range = matchList(coll, low, high, comp);
+      if (range.isEmpty()) {
+         throw new NoSuchElementException("No such values fit arguments");
+      }
+      return range;
+   }
+
+
+   private static <T> T refCeiling(Collection<T> coll, T key, Comparator<T> comp) {
+      checkArguments(coll, comp);
+      T ceiling = null;
+      for (T x : coll) {
+         if (comp.compare(x, key) >= 0 && (ceiling == null || comp.compare(x, ceiling) <= 0)) {
+            ceiling = x;
+         }
+      }
+      if (ceiling == null) {
+         throw new NoSuchElementException("Ceiling does not exist");
+      }
+      return ceiling;
+   }
+
+
+   private static <T> T refFloor(Collection<T> coll, T key, Comparator<T> comp) {
+      checkArguments(coll, comp);
+      T floor = null;
+      for (T x : coll) {
+         if (comp.compare(x, key) <= 0 && (floor == null || comp.compare(x, floor) >= 0)) {
+            floor = x;
+         }
+      }
+      if (floor == null) {
+         throw new NoSuchElementException("Floor does not exist");
+      }
+      return floor;
+   }
+}
@@ -0,0 +1,205 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * SortedCursor.java
+ * A lazy cursor over the distinct values of a Collection in ascending
+ * order. The kth value it yields is what Selector.kmin(coll, k, comp)
+ * returns, so walking the cursor answers kmin for ranks 1, 2, 3, ... in
+ * turn without copying and selecting again for each rank.
+ *
+ * The cursor copies coll once and sorts the copy incrementally
+ * (incremental quicksort, Paredes and Navarro, 2006). A stack holds the
+ * pivot boundaries left by earlier partitions, so each step only
+ * partitions the segment in front of the cursor and keeps the rest for
+ * later. Partitions are stable, as in Selector.kmin, so ties come out in
+ * encounter order. Walking the first k ranks costs expected
+ * O(n + m log m), where m is the number of elements passed. As in
+ * CollectionSelect, bad pivots are bounded: a segment that is already
+ * 2 log n partitions deep is sorted outright, so walking the whole
+ * collection never costs more than O(n log n).
+ *
+ * @author  Will Humphlett (wah0028@auburn.edu)
+ * @version 10/17/2026
+ *
+ */
+public final class SortedCursor<T> implements Iterator<T> {
+
+   /** the copy being sorted, and the partitioner working on it. */
+   private final Object[] a;
+   private final CollectionSelect<T> select;
+
+   /** index of the next element to visit; a[0..pos) are in final order. */
+   private int pos;
+
+   /** a[pos..sortedEnd) are also in final order. */
+   private int sortedEnd;
+
+   /** pivot boundaries above pos, increasing toward the bottom. */
+   private int[] stack = new int[16];
+   private int top;
+
+   /** partitions above the segment ending at each boundary. */
+   private int[] depths = new int[16];
+
+   /** depth at which a segment is sorted instead of partitioned. */
+   private final int maxDepth;
+
+   /** values yielded so far, by rank. */
+   private final ArrayList<T> yielded = new ArrayList<T>();
+
+   /** the last element visited, and the next value found ahead. */
+   private Object prev;
+   private T next;
+   private boolean ready;
+
+   /**
+    * Builds a cursor over the distinct values of coll, ascending as
+    * defined by comp. coll is copied and is not changed. If either coll or
+    * comp is null, this constructor throws an IllegalArgumentException.
+    *
+    * @param coll    the Collection whose values are visited
+    * @param comp    the Comparator that defines the total order on T
+    * @throws        IllegalArgumentException as per above
+    */
+   public SortedCursor(Collection<T> coll, Comparator<T> comp) {
+      if (coll == null || comp == null) {
+         throw new IllegalArgumentException("Arguments must not be null");
+      }
+      a = coll.toArray();
+      select = new CollectionSelect<T>(a, comp);
+      maxDepth = 2 * (32 - Integer.numberOfLeadingZeros(a.length));
+      push(a.length, 0);
+   }
+
+
+   /**
+    * Returns true if there is another distinct value.
+    */
+   @Override
+   public boolean hasNext() {
+      while (!ready && pos < a.length) {
+         settle();
+         Object e = a[pos];
+         // Same test as the sorted scan in Selector.kmin
+         if (pos == 0 || !e.equals(prev)) {
+            next = cast(e);
+            ready = true;
+         }
+         prev = e;
+         advance();
+      }
+      return ready;
+   }
+
+
+   /**
+    * Returns the next distinct value. This method throws a
+    * NoSuchElementException if there is none.
+    */
+   @Override
+   public T next() {
+      if (!hasNext()) {
+         throw new NoSuchElementException("No more distinct values");
+      }
+      T value = next;
+      next = null;
+      ready = false;
+      yielded.add(value);
+      return value;
+   }
+
+
+   /**
+    * Returns the number of distinct values yielded so far.
+    */
+   public int rank() {
+      return yielded.size();
+   }
+
+
+   /**
+    * Returns what Selector.kmin(coll, k, comp) returns, advancing the
+    * cursor to rank k if it is not there yet. Ranks already passed are
+    * answered from the values yielded so far. If k is less than 1 or there
+    * is no kth minimum value, this method throws a NoSuchElementException.
+    *
+    * @param k       the k-selection value
+    * @return        the kth minimum value
+    * @throws        NoSuchElementException as per above
+    */
+   public T kmin(int k) {
+      if (k < 1) {
+         throw new NoSuchElementException("Illegal k value");
+      }
+      while (yielded.size() < k) {
+         if (!hasNext()) {
+            throw new NoSuchElementException(k + "th min does not exist.");
+         }
+         next();
+      }
+      return yielded.get(k - 1);
+   }
+
+
+   /**
+    * Partitions the segment in front of the cursor until a[pos] is in its
+    * final place. Each partition pushes its boundaries, so the segments
+    * beyond them are left for later steps.
+    */
+   private void settle() {
+      while (pos >= sortedEnd) {
+         int hi = stack[top - 1];
+         int depth = depths[top - 1];
+         if (hi - pos <= CollectionSelect.INSERTION_CUTOFF || depth >= maxDepth) {
+            select.sort(pos, hi);
+            sortedEnd = hi;
+            return;
+         }
+         select.partition(pos, hi);
+         // What remains of this segment, past the new boundaries, is one deeper
+         depths[top - 1] = depth + 1;
+         if (select.gt < hi) {
+            push(select.gt, depth + 1);
+         }
+         if (select.lt > pos) {
+            push(select.lt, depth + 1);
+         }
+         else {
+            // The equal group is at the front and needs no more work
+            sortedEnd = select.gt;
+         }
+      }
+   }
+
+
+   /**
+    * Moves past a[pos], dropping boundaries that are now behind it.
+    */
+   private void advance() {
+      pos++;
+      while (top > 0 && stack[top - 1] <= pos) {
+         top--;
+      }
+   }
+
+
+   private void push(int boundary, int depth) {
+      if (top == stack.length) {
+         stack = Arrays.copyOf(stack, top * 2);
+         depths = Arrays.copyOf(depths, top * 2);
+      }
+      depths[top] = depth;
+      stack[top++] = boundary;
+   }
+
+
+   @SuppressWarnings("unchecked")
+   private T cast(Object e) {
+      return (T) e;
+   }
+}
@@ -0,0 +1,210 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * TopKSelect.java
+ * One-pass selection of the k smallest or k largest distinct values of a
+ * Collection, for small k. A TreeMap ordered by the comparator serves as
+ * a bounded priority queue of at most k groups, one group per comparator
+ * class seen so far. Once it is full, an element beyond the current
+ * bound costs a single comparison and is dropped. The pass therefore
+ * takes O(n log k) time and O(k) groups of space, and the collection is
+ * never copied.
+ *
+ * Selector counts distinct values by equals between neighbours in stable
+ * sorted order, so within each group the elements that start a new run
+ * (for kmin) or end one (for kmax) are recorded in encounter order. That
+ * reproduces the sorted scan exactly. A comparator class normally adds
+ * at least one distinct value. If equals is inconsistent with the
+ * comparator, the kept groups may hold fewer than k, and then the answer
+ * is reported as unknown. When values are distinct by comparator instead,
+ * each group is exactly one value, equals is never called, and the answer
+ * is always known.
+ *
+ * @author  Will Humphlett (wah0028@auburn.edu)
+ * @version 10/17/2026
+ *
+ */
+final class TopKSelect {
+
+   /** Largest k for which Selector uses this class. */
+   static final int MAX_K = 32;
+
+   /**
+    * Can't instantiate this class.
+    */
+   private TopKSelect() { }
+
+
+   /**
+    * Returns the answers Selector.kmin gives for ranks 1, 2, ... up to k,
+    * in that order. The list is shorter than k only if coll has fewer than
+    * k distinct values. Returns null if the pass could not decide, in which
+    * case the caller must fall back to a full selection.
+    */
+   static <T> List<T> smallest(Collection<T> coll, int k, Comparator<? super T> comp) {
+      return smallest(coll, k, comp, false);
+   }
+
+
+   /**
+    * As smallest(coll, k, comp), but when byComparator, values are distinct
+    * by comp as in Selector.kminByComparator, and null is never returned.
+    */
+   static <T> List<T> smallest(Collection<T> coll, int k, Comparator<? super T> comp,
+                               boolean byComparator) {
+      TreeMap<T, Group<T>> groups = new TreeMap<T, Group<T>>(comp);
+      boolean evicted = false;
+      T bound = null;
+      for (T x : coll) {
+         if (bound != null && comp.compare(x, bound) > 0) {
+            evicted = true;
+            continue;
+         }
+         Group<T> g = groups.get(x);
+         if (g != null && byComparator) {
+            continue;
+         }
+         if (g != null) {
+            // kmin counts x unless it equals the element sorted just before it
+            if (!x.equals(g.last) && g.marks.size() < k) {
+               g.marks.add(x);
+            }
+            g.last = x;
+            continue;
+         }
+         groups.put(x, new Group<T>(x));
+         if (groups.size() > k) {
+            groups.pollLastEntry();
+            evicted = true;
+         }
+         if (groups.size() == k) {
+            bound = groups.lastKey();
+         }
+      }
+      List<T> retList = new ArrayList<T>(k);
+      if (byComparator) {
+         for (Group<T> g : groups.values()) {
+            retList.add(g.first);
+         }
+         return retList;
+      }
+      T prev = null;
+      boolean first = true;
+      for (Group<T> g : groups.values()) {
+         if (first || !g.first.equals(prev)) {
+            retList.add(g.first);
+         }
+         for (T mark : g.marks) {
+            retList.add(mark);
+         }
+         if (retList.size() >= k) {
+            return retList.subList(0, k);
+         }
+         prev = g.last;
+         first = false;
+      }
+      return evicted ? null : retList;
+   }
+
+
+   /**
+    * Returns the answers Selector.kmax gives for ranks 1, 2, ... up to k,
+    * in that order. The list is shorter than k only if coll has fewer than
+    * k distinct values. Returns null if the pass could not decide, in which
+    * case the caller must fall back to a full selection.
+    */
+   static <T> List<T> largest(Collection<T> coll, int k, Comparator<? super T> comp) {
+      return largest(coll, k, comp, false);
+   }
+
+
+   /**
+    * As largest(coll, k, comp), but when byComparator, values are distinct
+    * by comp as in Selector.kmaxByComparator, and null is never returned.
+    */
+   static <T> List<T> largest(Collection<T> coll, int k, Comparator<? super T> comp,
+                               boolean byComparator) {
+      TreeMap<T, Group<T>> groups = new TreeMap<T, Group<T>>(comp);
+      boolean evicted = false;
+      T bound = null;
+      for (T x : coll) {
+         if (bound != null && comp.compare(x, bound) < 0) {
+            evicted = true;
+            continue;
+         }
+         Group<T> g = groups.get(x);
+         if (g != null && byComparator) {
+            g.last = x;
+            continue;
+         }
+         if (g != null) {
+            // kmax counts the element before x unless it equals x; only the
+            // last k such elements of a group can ever be reached
+            if (!g.last.equals(x)) {
+               g.marks.add(g.last);
+               if (g.marks.size() > k) {
+                  g.marks.removeFirst();
+               }
+            }
+            g.last = x;
+            continue;
+         }
+         groups.put(x, new Group<T>(x));
+         if (groups.size() > k) {
+            groups.pollFirstEntry();
+            evicted = true;
+         }
+         if (groups.size() == k) {
+            bound = groups.firstKey();
+         }
+      }
+      List<T> retList = new ArrayList<T>(k);
+      if (byComparator) {
+         for (Group<T> g : groups.descendingMap().values()) {
+            retList.add(g.last);
+         }
+         return retList;
+      }
+      T prev = null;
+      boolean first = true;
+      for (Map.Entry<T, Group<T>> entry : groups.descendingMap().entrySet()) {
+         Group<T> g = entry.getValue();
+         if (first || !g.last.equals(prev)) {
+            retList.add(g.last);
+         }
+         Iterator<T> it = g.marks.descendingIterator();
+         while (it.hasNext()) {
+            retList.add(it.next());
+         }
+         if (retList.size() >= k) {
+            return retList.subList(0, k);
+         }
+         prev = g.first;
+         first = false;
+      }
+      return evicted ? null : retList;
+   }
+
+
+   /**
+    * The elements of one comparator class: the first and last in
+    * encounter order, and the run boundaries in between.
+    */
+   private static final class Group<T> {
+      final T first;
+      T last;
+      final ArrayDeque<T> marks = new ArrayDeque<T>();
+
+      Group(T first) {
+         this.first = first;
+         this.last = first;
+      }
+   }
+}
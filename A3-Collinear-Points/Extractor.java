@@ -1,5 +1,4 @@
 import java.io.File;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Scanner;
@@ -81,26 +80,35 @@ public class Extractor {
    /**
     * Returns a sorted set of all line segments of at least four collinear
     * points. The line segments are maximal; that is, no sub-segments are
-    * identified separately. A sort-and-scan strategy is used. Returns an empty
-    * set if there are no qualifying line segments.
+    * identified separately. For each anchor point, the other points are
+    * grouped by their exact slope key with the anchor in a hash table, so
+    * each anchor costs expected linear time rather than a sort. A line is
+    * built only from its smallest point, the anchor for which no point of
+    * the group is less. Returns an empty set if there are no qualifying line
+    * segments.
     */
    public SortedSet<Line> getLinesFast() {
-      Point[] plist = Arrays.copyOf(points, points.length);
       lines = new TreeSet<Line>();
-      Line aux = new Line();
-      boolean contAdd = true;
-      for (int i = 0; i < points.length; i++) { // Loop through array
-         Arrays.sort(plist, points[i].slopeOrder); // Sorts each loop with respec to current point
+      SlopeTable table = new SlopeTable(points.length);
+      for (int i = 0; i < points.length; i++) {
+         Point anchor = points[i];
+         table.clear();
          for (int j = 0; j < points.length; j++) {
-            aux.add(plist[0]); // Start with first point
-            contAdd = aux.add(plist[j]); // Attempt to add next point
-            if (!contAdd) { // if Cannot continue to add
-               if (aux.length() >= 4) { // Adds line if longer that 4
+            int c = points[j].compareTo(anchor);
+            if (c != 0) { // Copies of the anchor make no slope
+               table.add(anchor.slopeKey(points[j]), j, c < 0);
+            }
+         }
+         for (int g = 0; g < table.groups(); g++) {
+            if (table.size(g) >= 3 && !table.hasSmaller(g)) {
+               Line aux = new Line();
+               aux.add(anchor);
+               for (int j = table.first(g); j >= 0; j = table.next(j)) {
+                  aux.add(points[j]);
+               }
+               if (aux.length() >= 4) { // Duplicate points are counted once
                   lines.add(aux);
                }
-               // Start new line beginning at the current point
-               aux = new Line();
-               aux.add(plist[j]);
             }
          }
       }
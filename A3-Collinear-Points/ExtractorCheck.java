@@ -0,0 +1,255 @@
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * ExtractorCheck.java
+ * Differential checks for Extractor, Line and Point. getLinesFast and
+ * getLinesBrute are compared with a direct definition of their results,
+ * found by testing every pair or every four points for collinearity with
+ * a cross product: on random grids dense in collinear points and
+ * duplicates, and on each file in test_data small enough for the
+ * definition to be tried. The exact slope order, slope keys and
+ * collinearity test of Point are compared with slopeTo on coordinates
+ * small enough for its doubles to be exact, and with each other on large
+ * coordinates. A seed and a number of rounds can be given on the command
+ * line; for example
+ *
+ *    java ExtractorCheck 42 2000
+ *
+ * The first mismatches are printed, and the exit status is 1 if there
+ * were any.
+ *
+ * @author  Will Humphlett (wah0028@auburn.edu)
+ * @version 10/17/2026
+ *
+ */
+public class ExtractorCheck {
+
+   /** Mismatches printed before the rest are only counted. */
+   private static final int MAX_REPORTS = 20;
+
+   /** Largest test_data file checked against the pairwise definition. */
+   private static final int MAX_FILE_POINTS = 500;
+
+   private static int checks;
+   private static int failures;
+
+   /** Drives execution. */
+   public static void main(String[] args) {
+      long seed = args.length > 0 ? Long.parseLong(args[0]) : 2210;
+      int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+      Random rand = new Random(seed);
+      for (int round = 0; round < rounds; round++) {
+         int width = 1 + rand.nextInt(10);
+         List<Point> points = new ArrayList<Point>();
+         for (int i = 1 + rand.nextInt(40); i > 0; i--) {
+            points.add(new Point(rand.nextInt(width), rand.nextInt(width)));
+         }
+         Extractor extractor = new Extractor(points);
+         compare("round " + round + " fast", maximalLines(points), extractor.getLinesFast());
+         if (points.size() <= 12) {
+            compare("round " + round + " brute", fourPointLines(points),
+               extractor.getLinesBrute());
+         }
+         checkSlopes(rand, "round " + round);
+      }
+      checkFiles();
+      checkLargeCoordinates(rand);
+      System.out.println(checks + " checks, " + failures + " failures");
+      if (failures > 0) {
+         System.exit(1);
+      }
+   }
+
+
+   /**
+    * Compares slopeOrder, isCollinear and slopeKey with slopeTo on small
+    * coordinates, where distinct slopes are distinct doubles.
+    */
+   private static void checkSlopes(Random rand, String where) {
+      for (int q = 0; q < 50; q++) {
+         Point p = new Point(rand.nextInt(60), rand.nextInt(60));
+         Point a = new Point(rand.nextInt(60), rand.nextInt(60));
+         Point b = new Point(rand.nextInt(60), rand.nextInt(60));
+         int expected = Double.compare(p.slopeTo(a), p.slopeTo(b));
+         compare(where + " slope order " + p + " " + a + " " + b, expected,
+            Integer.signum(p.slopeOrder.compare(a, b)));
+         boolean collinear = p.equals(a) || p.equals(b) || p.slopeTo(a) == p.slopeTo(b);
+         compare(where + " collinear " + p + " " + a + " " + b, collinear,
+            p.isCollinear(a, b));
+         if (!p.equals(a) && !p.equals(b)) {
+            compare(where + " slope key " + p + " " + a + " " + b, collinear,
+               p.slopeKey(a) == p.slopeKey(b));
+         }
+      }
+   }
+
+
+   /**
+    * Compares getLinesFast with the definition on every test_data file
+    * small enough for it.
+    */
+   private static void checkFiles() {
+      File[] files = new File("test_data").listFiles();
+      if (files == null) {
+         System.out.println("test_data not found; run from A3-Collinear-Points");
+         return;
+      }
+      for (File file : files) {
+         List<Point> points = read(file);
+         if (points.size() <= MAX_FILE_POINTS) {
+            compare(file.getName(), maximalLines(points),
+               new Extractor(file.getPath()).getLinesFast());
+         }
+      }
+   }
+
+
+   /**
+    * Checks that the exact methods agree with each other where slopeTo
+    * runs out of precision, and separate slopes slopeTo cannot.
+    */
+   private static void checkLargeCoordinates(Random rand) {
+      Point origin = new Point(0, 0);
+      Point p = new Point(2000000000, 1999999999);
+      Point q = new Point(1999999999, 1999999998);
+      compare("close slopes, double equal", true, origin.slopeTo(p) == origin.slopeTo(q));
+      compare("close slopes, exact order", true, origin.slopeOrder.compare(p, q) > 0);
+      compare("close slopes, not collinear", false, origin.isCollinear(p, q));
+      for (int i = 0; i < 10000; i++) {
+         Point o = new Point(rand.nextInt(Integer.MAX_VALUE), rand.nextInt(Integer.MAX_VALUE));
+         Point a = new Point(rand.nextInt(Integer.MAX_VALUE), rand.nextInt(Integer.MAX_VALUE));
+         // b is on the line through o and a, or one step off it
+         int step = 1 + rand.nextInt(3);
+         long bx = x(o) + (x(a) - x(o)) / step;
+         long by = y(o) + (y(a) - y(o)) / step + rand.nextInt(2);
+         if (bx < 0 || by < 0 || bx > Integer.MAX_VALUE || by > Integer.MAX_VALUE) {
+            continue;
+         }
+         Point b = new Point((int) bx, (int) by);
+         boolean collinear = cross(o, a, b) == 0;
+         compare("large collinear", collinear, o.isCollinear(a, b));
+         if (!o.equals(a) && !o.equals(b)) {
+            compare("large slope order", collinear, o.slopeOrder.compare(a, b) == 0);
+            compare("large slope key", collinear, o.slopeKey(a) == o.slopeKey(b));
+         }
+      }
+   }
+
+
+   /**
+    * Returns every maximal line of at least four distinct points, by
+    * collecting all points collinear with each pair.
+    */
+   private static SortedSet<Line> maximalLines(List<Point> points) {
+      SortedSet<Line> lines = new TreeSet<Line>();
+      for (Point p : points) {
+         for (Point q : points) {
+            if (p.compareTo(q) < 0) {
+               TreeSet<Point> on = new TreeSet<Point>();
+               for (Point r : points) {
+                  if (cross(p, q, r) == 0) {
+                     on.add(r);
+                  }
+               }
+               if (on.size() >= 4 && on.first().equals(p)) {
+                  lines.add(line(on));
+               }
+            }
+         }
+      }
+      return lines;
+   }
+
+
+   /**
+    * Returns every line of exactly four distinct collinear points.
+    */
+   private static SortedSet<Line> fourPointLines(List<Point> points) {
+      SortedSet<Line> lines = new TreeSet<Line>();
+      int n = points.size();
+      for (int i = 0; i < n; i++) {
+         for (int j = i + 1; j < n; j++) {
+            for (int k = j + 1; k < n; k++) {
+               for (int l = k + 1; l < n; l++) {
+                  TreeSet<Point> on = new TreeSet<Point>();
+                  on.add(points.get(i));
+                  on.add(points.get(j));
+                  on.add(points.get(k));
+                  on.add(points.get(l));
+                  if (on.size() == 4 && cross(points.get(i), points.get(j), points.get(k)) == 0
+                        && cross(points.get(i), points.get(j), points.get(l)) == 0) {
+                     lines.add(line(on));
+                  }
+               }
+            }
+         }
+      }
+      return lines;
+   }
+
+
+   /**
+    * Returns a line of points known to be collinear.
+    */
+   private static Line line(TreeSet<Point> on) {
+      Line line = new Line();
+      for (Point p : on) {
+         line.add(p);
+      }
+      return line;
+   }
+
+
+   /**
+    * Returns the cross product of (a - o) and (b - o), from the printed
+    * coordinates, so that it depends on nothing in Point but toString.
+    */
+   private static long cross(Point o, Point a, Point b) {
+      return (x(a) - x(o)) * (y(b) - y(o)) - (y(a) - y(o)) * (x(b) - x(o));
+   }
+
+
+   private static long x(Point p) {
+      String s = p.toString();
+      return Long.parseLong(s.substring(1, s.indexOf(',')));
+   }
+
+
+   private static long y(Point p) {
+      String s = p.toString();
+      return Long.parseLong(s.substring(s.indexOf(',') + 2, s.length() - 1));
+   }
+
+
+   private static List<Point> read(File file) {
+      List<Point> points = new ArrayList<Point>();
+      try (Scanner scan = new Scanner(file)) {
+         for (int n = scan.nextInt(); n > 0; n--) {
+            points.add(new Point(scan.nextInt(), scan.nextInt()));
+         }
+      }
+      catch (java.io.IOException e) {
+         System.err.println("Cannot read " + file);
+      }
+      return points;
+   }
+
+
+   /**
+    * Records one check: the answer must equal the expected value.
+    */
+   private static void compare(String what, Object expected, Object answer) {
+      checks++;
+      if (!String.valueOf(expected).equals(String.valueOf(answer))) {
+         if (failures++ < MAX_REPORTS) {
+            System.out.println(what + ": was " + answer + ", expected " + expected);
+         }
+      }
+   }
+}
@@ -50,8 +50,7 @@ public class Line implements Comparable<Line>, Iterable<Point> {
          line.add(p);
          return true;
       }
-      else if (line.first().slopeTo(line.last())
-         == line.first().slopeTo(p)) {
+      else if (line.first().isCollinear(line.last(), p)) {
          line.add(p);
          return true;
       }
@@ -116,7 +116,98 @@ public final class Point implements Comparable<Point> {
       int over = that.x - this.x;
       return ((double) up) / ((double) over);
    }
-      
+
+   /**
+    * Returns an exact key for the slope of the line segment between this
+    * point and the specified point. Two points have the same key if and
+    * only if they make the same slope with this point. The slope dy / dx is
+    * reduced by the gcd of its terms and signed so that dx is positive; a
+    * horizontal slope is (0, 1), a vertical slope is (1, 0), and a
+    * degenerate one is (0, 0). dy is packed into the high 32 bits of the key
+    * and dx into the low 32 bits. Unlike slopeTo, the key is exact for all
+    * coordinates.
+    */
+   public long slopeKey(Point that) {
+      int dy = that.y - this.y;
+      int dx = that.x - this.x;
+      if (dx == 0) {
+         return dy == 0 ? 0L : 1L << 32;
+      }
+      if (dy == 0) {
+         return 1L;
+      }
+      int g = gcd(Math.abs(dy), Math.abs(dx));
+      dy /= g;
+      dx /= g;
+      if (dx < 0) {
+         dy = -dy;
+         dx = -dx;
+      }
+      return ((long) dy << 32) | (dx & 0xffffffffL);
+   }
+
+   /**
+    * Returns true if this point and the specified points a and b lie on one
+    * line. The test is exact: the cross product of (a - this) and (b - this)
+    * is computed in long arithmetic and compared with zero. Any two points
+    * are collinear with this point if either is equal to it.
+    */
+   public boolean isCollinear(Point a, Point b) {
+      long cross = (long) (a.x - this.x) * (b.y - this.y)
+         - (long) (a.y - this.y) * (b.x - this.x);
+      return cross == 0;
+   }
+
+   /**
+    * Orders the slopes this point makes with p1 and p2 exactly, in the
+    * order of slopeTo: a degenerate slope is least, a vertical one is
+    * greatest, and others are compared as dy1 / dx1 against dy2 / dx2 by
+    * cross-multiplying in long arithmetic, with each dx made positive.
+    */
+   private int compareSlopes(Point p1, Point p2) {
+      int c1 = infinity(p1);
+      int c2 = infinity(p2);
+      if (c1 != 0 || c2 != 0) {
+         return Integer.compare(c1, c2);
+      }
+      long dy1 = p1.y - this.y;
+      long dx1 = p1.x - this.x;
+      long dy2 = p2.y - this.y;
+      long dx2 = p2.x - this.x;
+      if (dx1 < 0) {
+         dy1 = -dy1;
+         dx1 = -dx1;
+      }
+      if (dx2 < 0) {
+         dy2 = -dy2;
+         dx2 = -dx2;
+      }
+      return Long.compare(dy1 * dx2, dy2 * dx1);
+   }
+
+   /**
+    * Returns -1 if the slope to that point is degenerate, 1 if it is
+    * vertical, and 0 if it is finite.
+    */
+   private int infinity(Point that) {
+      if (this.x != that.x) {
+         return 0;
+      }
+      return this.y == that.y ? -1 : 1;
+   }
+
+   /**
+    * Returns the greatest common divisor of two positive integers.
+    */
+   private static int gcd(int a, int b) {
+      while (b != 0) {
+         int r = a % b;
+         a = b;
+         b = r;
+      }
+      return a;
+   }
+
    /**
     * Defines a total order for Points based on the slope that two specified points
     * make with this point.
@@ -127,22 +218,12 @@ public final class Point implements Comparable<Point> {
        * Compares two specified points p1 and p2 for order. Returns a negative
        * integer, zero, or a positive integer if p1 is less than, equal to, or
        * greater than p2. All three properties of the compare method as
-       * specified in the Comparator interface are met. 
+       * specified in the Comparator interface are met. Slopes are compared
+       * exactly, so no two different slopes are ever found equal.
        */
       @Override   
       public int compare(Point p1, Point p2) {
-      // Calculates slopes for compare /
-         double s1 = slopeTo(p1);
-         double s2 = slopeTo(p2);
-         if (s1 < s2) {
-            return -1;
-         }
-         else if (s1 > s2) {
-            return 1;
-         }
-         else {
-            return 0;
-         }
+         return compareSlopes(p1, p2);
       }
    }
 }
@@ -0,0 +1,127 @@
+import java.util.Arrays;
+
+/**
+ * SlopeTable.java
+ * Groups point indices by slope key for one anchor at a time. The table is
+ * an open-addressing hash map from long keys to groups, with linear
+ * probing over primitive arrays, so adding a point allocates nothing. Each
+ * group keeps its size, a chain of its point indices, and whether any of
+ * its points is less than the anchor. Slots are stamped with the anchor
+ * they were filled for, so clear costs O(1) and the table is reused for
+ * every anchor.
+ *
+ * @author  Will Humphlett (wah0028@auburn.edu)
+ * @version 10/17/2026
+ *
+ */
+final class SlopeTable {
+
+   /** per-slot key, group size, first point, and smaller-point flag. */
+   private final long[] keys;
+   private final int[] sizes;
+   private final int[] heads;
+   private final boolean[] smaller;
+
+   /** the anchor each slot was filled for; slots of older anchors are free. */
+   private final int[] stamps;
+   private int stamp;
+
+   /** the next point in each point's group, or -1. */
+   private final int[] next;
+
+   /** the slots in use, in the order their groups were created. */
+   private final int[] used;
+   private int groups;
+
+   private final int shift;
+
+   /**
+    * Builds a table for groups of points indexed 0 through n - 1.
+    */
+   SlopeTable(int n) {
+      int capacity = Integer.highestOneBit(Math.max(2 * n, 2) - 1) << 1;
+      keys = new long[capacity];
+      sizes = new int[capacity];
+      heads = new int[capacity];
+      smaller = new boolean[capacity];
+      stamps = new int[capacity];
+      next = new int[n];
+      used = new int[n];
+      shift = 64 - Integer.numberOfTrailingZeros(capacity);
+      Arrays.fill(stamps, -1);
+   }
+
+
+   /**
+    * Empties the table for a new anchor.
+    */
+   void clear() {
+      stamp++;
+      groups = 0;
+   }
+
+
+   /**
+    * Adds point to the group for key, noting whether it is less than the
+    * anchor.
+    */
+   void add(long key, int point, boolean less) {
+      int mask = keys.length - 1;
+      int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+      while (stamps[slot] == stamp && keys[slot] != key) {
+         slot = (slot + 1) & mask;
+      }
+      if (stamps[slot] != stamp) {
+         stamps[slot] = stamp;
+         keys[slot] = key;
+         sizes[slot] = 0;
+         heads[slot] = -1;
+         smaller[slot] = false;
+         used[groups++] = slot;
+      }
+      next[point] = heads[slot];
+      heads[slot] = point;
+      sizes[slot]++;
+      smaller[slot] |= less;
+   }
+
+
+   /**
+    * Returns the number of groups since the last clear.
+    */
+   int groups() {
+      return groups;
+   }
+
+
+   /**
+    * Returns the number of points in group g.
+    */
+   int size(int g) {
+      return sizes[used[g]];
+   }
+
+
+   /**
+    * Returns true if group g holds a point less than the anchor.
+    */
+   boolean hasSmaller(int g) {
+      return smaller[used[g]];
+   }
+
+
+   /**
+    * Returns the first point of group g.
+    */
+   int first(int g) {
+      return heads[used[g]];
+   }
+
+
+   /**
+    * Returns the point after point in its group, or -1.
+    */
+   int next(int point) {
+      return next[point];
+   }
+}